@@ -10,6 +10,7 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.EnableAspectJAutoProxy;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
@@ -19,6 +20,7 @@ import it.andrea.start.interceptor.LanguageInterceptor;
 @Configuration
 @EnableJpaAuditing
 @EnableAspectJAutoProxy
+@EnableScheduling
 public class AppConfig implements WebMvcConfigurer {
 
     private final LanguageInterceptor languageInterceptor;
@@ -5,6 +5,7 @@ import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
 import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
@@ -14,6 +15,7 @@ import org.springframework.web.context.request.ServletRequestAttributes;
 import it.andrea.start.annotation.Audit;
 import it.andrea.start.constants.AuditActivity;
 import it.andrea.start.constants.AuditLevel;
+import it.andrea.start.dto.audit.AuditSummary;
 import it.andrea.start.models.audit.AuditTrace;
 import it.andrea.start.security.service.JWTokenUserDetails;
 import it.andrea.start.service.audit.AuditTraceService;
@@ -85,6 +87,7 @@ public class AuditAspect {
         try {
             result = joinPoint.proceed();
             auditTrace.setSuccess(true);
+            auditTrace.setResultSummary(summaryOf(result));
         } catch (Throwable ex) {
 
             auditTrace.setSuccess(false);
@@ -106,6 +109,11 @@ public class AuditAspect {
         return result;
     }
 
+    private static String summaryOf(Object result) {
+        Object body = result instanceof ResponseEntity<?> response ? response.getBody() : result;
+        return body instanceof AuditSummary summary ? summary.toAuditSummary() : null;
+    }
+
     private boolean shouldLog(AuditLevel level, boolean success) {
         return switch (level) {
             case ALL -> true;
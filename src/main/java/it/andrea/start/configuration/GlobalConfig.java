@@ -19,4 +19,7 @@ public class GlobalConfig {
     @Value("${app.audit.day}")
     private int auditSavedDay;
 
+    @Value("${app.security.stateless.enabled}")
+    private boolean statelessAuthentication;
+
 }
@@ -0,0 +1,83 @@
+package it.andrea.start.configuration;
+
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+@Configuration
+public class HibernateCacheConfig {
+
+    public static final String USER_REGION = "user";
+    public static final String USER_ROLES_REGION = "user.roles";
+    public static final String USER_NATURAL_ID_REGION = "user.naturalId";
+    public static final String USER_ROLE_REGION = "userRole";
+
+    private final long userMaxSize;
+    private final long userTtlSeconds;
+    private final long userRoleMaxSize;
+
+    // @formatter:off
+    public HibernateCacheConfig(
+            @Value("${app.hibernate-cache.user.max-size}") long userMaxSize, //
+            @Value("${app.hibernate-cache.user.ttl-seconds}") long userTtlSeconds, //
+            @Value("${app.hibernate-cache.user-role.max-size}") long userRoleMaxSize) {
+    // @formatter:on
+
+        this.userMaxSize = userMaxSize;
+        this.userTtlSeconds = userTtlSeconds;
+        this.userRoleMaxSize = userRoleMaxSize;
+    }
+
+    @Bean(destroyMethod = "close")
+    CacheManager hibernateCacheManager() {
+        // Own URI per application context: the provider keeps cache managers in a JVM-wide registry
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(URI.create("hibernate-" + UUID.randomUUID()), getClass().getClassLoader());
+
+        // Every region used by the entity mappings is declared here: Hibernate fails on a missing one
+        cacheManager.createCache(USER_REGION, region(userMaxSize, userTtlSeconds));
+        cacheManager.createCache(USER_ROLES_REGION, region(userMaxSize, userTtlSeconds));
+        cacheManager.createCache(USER_NATURAL_ID_REGION, region(userMaxSize, userTtlSeconds));
+        cacheManager.createCache(USER_ROLE_REGION, region(userRoleMaxSize, 0));
+
+        return cacheManager;
+    }
+
+    @Bean
+    HibernatePropertiesCustomizer hibernateCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            // Required by the Micrometer binder to publish hit/miss counters per region
+            properties.put(AvailableSettings.GENERATE_STATISTICS, true);
+        };
+    }
+
+    private static CaffeineConfiguration<Object, Object> region(long maxSize, long ttlSeconds) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxSize));
+        if (ttlSeconds > 0) {
+            configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(ttlSeconds)));
+        }
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+
+}
@@ -1,30 +1,131 @@
 package it.andrea.start.configuration;
 
+import java.util.Properties;
+import java.util.function.ToDoubleFunction;
+
 import javax.sql.DataSource;
 
+import org.quartz.JobListener;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.SchedulerListener;
+import org.quartz.TriggerListener;
+import org.quartz.impl.StdSchedulerFactory;
 import org.quartz.spi.JobFactory;
 import org.quartz.spi.TriggerFiredBundle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AbstractDependsOnBeanFactoryPostProcessor;
+import org.springframework.boot.autoconfigure.quartz.QuartzProperties;
 import org.springframework.boot.autoconfigure.quartz.SchedulerFactoryBeanCustomizer;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.lang.NonNull;
+import org.springframework.scheduling.quartz.SchedulerFactoryBean;
 import org.springframework.scheduling.quartz.SpringBeanJobFactory;
 import org.springframework.transaction.PlatformTransactionManager;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import it.andrea.start.job.scheduler.VirtualThreadPool;
+import it.andrea.start.service.job.JobExecutionRecorder;
+
 @Configuration
 public class QuartzConfig {
 
+    private static final Logger LOG = LoggerFactory.getLogger(QuartzConfig.class);
+
+    private static final String PROP_THREAD_PRIORITY = StdSchedulerFactory.PROP_THREAD_POOL_PREFIX + ".threadPriority";
+
+    private final boolean virtualThreadsEnabled;
+    private final int maxConcurrency;
+
+    public QuartzConfig(
+            @Value("${app.quartz.virtual-threads.enabled:false}") boolean virtualThreadsEnabled, //
+            @Value("${app.quartz.virtual-threads.max-concurrency:10}") int maxConcurrency, //
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int connectionPoolSize) {
+
+        this.virtualThreadsEnabled = virtualThreadsEnabled;
+        this.maxConcurrency = maxConcurrency;
+
+        // Jobs share the connection pool with HTTP requests: as many concurrent jobs as connections starves the API
+        if (virtualThreadsEnabled && maxConcurrency >= connectionPoolSize) {
+            LOG.warn("Concorrenza massima dei job ({}) non inferiore al pool di connessioni ({}): i job possono bloccare le richieste HTTP", maxConcurrency, connectionPoolSize);
+        }
+    }
+
     @Bean
-    SchedulerFactoryBeanCustomizer schedulerFactoryBeanCustomizer(DataSource dataSource, PlatformTransactionManager transactionManager) {
+    SchedulerFactoryBeanCustomizer schedulerFactoryBeanCustomizer(DataSource dataSource, PlatformTransactionManager transactionManager, QuartzProperties quartzProperties, ObjectProvider<JobListener> jobListeners, ObjectProvider<TriggerListener> triggerListeners, ObjectProvider<SchedulerListener> schedulerListeners) {
         // @formatter:off
         return schedulerFactoryBean -> {
             schedulerFactoryBean.setDataSource(dataSource);
             schedulerFactoryBean.setTransactionManager(transactionManager);
+            schedulerFactoryBean.setGlobalJobListeners(jobListeners.orderedStream().toArray(JobListener[]::new));
+            schedulerFactoryBean.setGlobalTriggerListeners(triggerListeners.orderedStream().toArray(TriggerListener[]::new));
+            schedulerFactoryBean.setSchedulerListeners(schedulerListeners.orderedStream().toArray(SchedulerListener[]::new));
+            if (virtualThreadsEnabled) {
+                schedulerFactoryBean.setQuartzProperties(virtualThreadProperties(quartzProperties));
+            }
+        };
+        // @formatter:on
+    }
+
+    @Bean
+    MeterBinder quartzThreadPoolMetrics(Scheduler scheduler) {
+        // @formatter:off
+        return registry -> {
+            Gauge.builder("quartz.jobs.running", scheduler, poolValue(VirtualThreadPool::getRunningCount))
+                .description("Quartz jobs currently executing")
+                .register(registry);
+            Gauge.builder("quartz.jobs.waiting", scheduler, poolValue(VirtualThreadPool::getWaitingCount))
+                .description("Scheduler threads blocked waiting for a free concurrency permit")
+                .register(registry);
+            Gauge.builder("quartz.jobs.concurrency.limit", scheduler, poolValue(VirtualThreadPool::getPoolSize))
+                .description("Maximum number of concurrent Quartz jobs")
+                .register(registry);
+            Gauge.builder("quartz.threadpool.saturation", scheduler, QuartzConfig::saturation)
+                .description("Executing jobs divided by the thread pool size, whatever pool implementation is configured")
+                .register(registry);
         };
         // @formatter:on
     }
 
+    private Properties virtualThreadProperties(QuartzProperties quartzProperties) {
+        Properties properties = new Properties();
+        properties.putAll(quartzProperties.getProperties());
+        properties.setProperty(StdSchedulerFactory.PROP_THREAD_POOL_CLASS, VirtualThreadPool.class.getName());
+        properties.setProperty(StdSchedulerFactory.PROP_THREAD_POOL_PREFIX + ".threadCount", Integer.toString(maxConcurrency));
+        properties.remove(PROP_THREAD_PRIORITY);
+        return properties;
+    }
+
+    private static double saturation(Scheduler scheduler) {
+        try {
+            int poolSize = scheduler.getMetaData().getThreadPoolSize();
+            return poolSize > 0 ? (double) scheduler.getCurrentlyExecutingJobs().size() / poolSize : Double.NaN;
+        } catch (SchedulerException e) {
+            return Double.NaN;
+        }
+    }
+
+    private static ToDoubleFunction<Scheduler> poolValue(ToDoubleFunction<VirtualThreadPool> value) {
+        return scheduler -> {
+            try {
+                return VirtualThreadPool.forScheduler(scheduler.getSchedulerName()).map(value::applyAsDouble).orElse(Double.NaN);
+            } catch (SchedulerException e) {
+                return Double.NaN;
+            }
+        };
+    }
+
+    @Bean
+    static SchedulerDependsOnRecorderPostProcessor schedulerDependsOnRecorderPostProcessor() {
+        return new SchedulerDependsOnRecorderPostProcessor();
+    }
+
     @Bean
     JobFactory springBeanJobFactory(ApplicationContext applicationContext) {
         AutoWiringSpringBeanJobFactory jobFactory = new AutoWiringSpringBeanJobFactory();
@@ -32,6 +133,16 @@ public class QuartzConfig {
         return jobFactory;
     }
 
+    // The scheduler waits for running jobs when it is destroyed: depending on the recorder destroys it first,
+    // so the recorder's final flush sees the history rows of jobs that were still finishing
+    static class SchedulerDependsOnRecorderPostProcessor extends AbstractDependsOnBeanFactoryPostProcessor {
+
+        SchedulerDependsOnRecorderPostProcessor() {
+            super(Scheduler.class, SchedulerFactoryBean.class, JobExecutionRecorder.class);
+        }
+
+    }
+
     public static class AutoWiringSpringBeanJobFactory extends SpringBeanJobFactory {
 
         private ApplicationContext applicationContext;
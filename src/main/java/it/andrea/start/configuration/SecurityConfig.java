@@ -3,7 +3,6 @@ package it.andrea.start.configuration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
-import org.springframework.security.access.hierarchicalroles.RoleHierarchyImpl;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -11,18 +10,20 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.security.web.session.SessionManagementFilter;
 
-import it.andrea.start.constants.RoleType;
 import it.andrea.start.filters.CORSFilter;
 import it.andrea.start.security.jwt.AuthEntryPointJwt;
 import it.andrea.start.security.jwt.AuthTokenFilter;
 import it.andrea.start.security.jwt.JwtUtils;
+import it.andrea.start.security.password.PasswordEncoderFactory;
+import it.andrea.start.security.service.RevokedTokenRegistry;
+import it.andrea.start.security.service.RevokedUserRegistry;
+import it.andrea.start.security.service.UserDetailsCache;
+import it.andrea.start.utils.HelperAuthorization;
 
 @Configuration
 @EnableWebSecurity
@@ -41,12 +42,26 @@ public class SecurityConfig {
 
     private final AuthEntryPointJwt unauthorizedHandler;
     private final JwtUtils jwtUtils;
-    private final UserDetailsService userDetailsService;
+    private final UserDetailsCache userDetailsCache;
+    private final RevokedUserRegistry revokedUserRegistry;
+    private final RevokedTokenRegistry revokedTokenRegistry;
+    private final GlobalConfig globalConfig;
 
-    public SecurityConfig(AuthEntryPointJwt unauthorizedHandler, JwtUtils jwtUtils, UserDetailsService userDetailsService) {
+    // @formatter:off
+    public SecurityConfig(
+            AuthEntryPointJwt unauthorizedHandler,
+            JwtUtils jwtUtils,
+            UserDetailsCache userDetailsCache,
+            RevokedUserRegistry revokedUserRegistry,
+            RevokedTokenRegistry revokedTokenRegistry,
+            GlobalConfig globalConfig) {
+        // @formatter:on
         this.unauthorizedHandler = unauthorizedHandler;
         this.jwtUtils = jwtUtils;
-        this.userDetailsService = userDetailsService;
+        this.userDetailsCache = userDetailsCache;
+        this.revokedUserRegistry = revokedUserRegistry;
+        this.revokedTokenRegistry = revokedTokenRegistry;
+        this.globalConfig = globalConfig;
     }
 
     @Bean
@@ -68,7 +83,7 @@ public class SecurityConfig {
 
     @Bean
     AuthTokenFilter authenticationJwtTokenFilter() {
-        return new AuthTokenFilter(jwtUtils, userDetailsService);
+        return new AuthTokenFilter(jwtUtils, userDetailsCache, revokedUserRegistry, revokedTokenRegistry, globalConfig.isStatelessAuthentication());
     }
 
     @Bean
@@ -79,19 +94,13 @@ public class SecurityConfig {
     @Bean
     DefaultMethodSecurityExpressionHandler expressionHandler() {
         DefaultMethodSecurityExpressionHandler expressionHandler = new DefaultMethodSecurityExpressionHandler();
-        
-        String hierarchy = String.format("%s > %s%n%s > %s%n%s > %s",
-                RoleType.ROLE_ADMIN.name(), RoleType.ROLE_MANAGER.name(),
-                RoleType.ROLE_MANAGER.name(), RoleType.ROLE_USER.name(),
-                RoleType.ROLE_USER.name(), RoleType.ROLE_GUEST.name());
-        
-        expressionHandler.setRoleHierarchy(RoleHierarchyImpl.fromHierarchy(hierarchy));
+        expressionHandler.setRoleHierarchy(HelperAuthorization::reachableAuthorities);
         return expressionHandler;
     }
     
     @Bean
-    PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    PasswordEncoder passwordEncoder(PasswordEncoderFactory passwordEncoderFactory) {
+        return passwordEncoderFactory.create();
     }
 
     @Bean
@@ -4,6 +4,7 @@ public enum AuditTypeOperation {
 
     INITIALIZE,
     LOGIN,
+    LOGOUT,
     LOGIN_API_WEB,
     API_WEB,
     GET_INFO,
@@ -11,6 +12,9 @@ public enum AuditTypeOperation {
     CREATE,
     UPDATE,
     DELETE,
+    BULK_UPDATE,
+    IMPORT,
+    EXPORT,
     EMAIL_SEND,
 
 }
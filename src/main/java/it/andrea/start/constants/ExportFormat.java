@@ -0,0 +1,19 @@
+package it.andrea.start.constants;
+
+import lombok.Getter;
+
+@Getter
+public enum ExportFormat {
+
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String mediaType;
+    private final String extension;
+
+    ExportFormat(String mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+}
@@ -1,8 +1,26 @@
 package it.andrea.start.constants;
 
 public enum RoleType {
-    ROLE_ADMIN,
-    ROLE_MANAGER,
-    ROLE_USER,
-    ROLE_GUEST
+    // Bits are persisted in issued tokens: never change or reuse one, give a new role the next free bit.
+    // Each role includes all the roles with a lower level.
+    ROLE_ADMIN(1L << 0, 3),
+    ROLE_MANAGER(1L << 1, 2),
+    ROLE_USER(1L << 2, 1),
+    ROLE_GUEST(1L << 3, 0);
+
+    private final long bit;
+    private final int level;
+
+    RoleType(long bit, int level) {
+        this.bit = bit;
+        this.level = level;
+    }
+
+    public long getBit() {
+        return bit;
+    }
+
+    public int getLevel() {
+        return level;
+    }
 }
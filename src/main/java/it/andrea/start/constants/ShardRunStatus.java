@@ -0,0 +1,9 @@
+package it.andrea.start.constants;
+
+public enum ShardRunStatus {
+
+    RUNNING,
+    COMPLETED,
+    FAILED,
+
+}
@@ -0,0 +1,8 @@
+package it.andrea.start.constants;
+
+public enum UserImportStatus {
+
+    CREATED,
+    REJECTED,
+
+}
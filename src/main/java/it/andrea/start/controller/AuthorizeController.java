@@ -1,6 +1,7 @@
 package it.andrea.start.controller;
 
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -12,6 +13,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -20,8 +22,13 @@ import it.andrea.start.constants.AuditActivity;
 import it.andrea.start.constants.AuditTypeOperation;
 import it.andrea.start.dto.user.UserDTO;
 import it.andrea.start.security.jwt.JwtUtils;
+import it.andrea.start.security.login.LoginExecutor;
+import it.andrea.start.security.login.LoginThrottle;
 import it.andrea.start.security.service.JWTokenUserDetails;
+import it.andrea.start.service.auth.TokenRevocationService;
 import it.andrea.start.service.user.UserService;
+import it.andrea.start.utils.HelperETag;
+import jakarta.servlet.http.HttpServletRequest;
 
 @Tag(name = "Authorize API")
 @RestController
@@ -31,12 +38,26 @@ public class AuthorizeController {
     private final UserService userService;
     private final AuthenticationManager authenticationManager;
     private final JwtUtils jwtUtils;
+    private final TokenRevocationService tokenRevocationService;
+    private final LoginThrottle loginThrottle;
+    private final LoginExecutor loginExecutor;
 
-    public AuthorizeController(UserService userService, AuthenticationManager authenticationManager, JwtUtils jwtUtils) {
+    // @formatter:off
+    public AuthorizeController(
+            UserService userService,
+            AuthenticationManager authenticationManager,
+            JwtUtils jwtUtils,
+            TokenRevocationService tokenRevocationService,
+            LoginThrottle loginThrottle,
+            LoginExecutor loginExecutor) {
+        // @formatter:on
         super();
         this.userService = userService;
         this.authenticationManager = authenticationManager;
         this.jwtUtils = jwtUtils;
+        this.tokenRevocationService = tokenRevocationService;
+        this.loginThrottle = loginThrottle;
+        this.loginExecutor = loginExecutor;
     }
 
     // @formatter:off
@@ -48,9 +69,11 @@ public class AuthorizeController {
     // @formatter:on
     @Audit(activity = AuditActivity.USER_OPERATION,type = AuditTypeOperation.LOGIN)
     @PostMapping("login")
-    public ResponseEntity<TokenResponse> authorize(@RequestBody @Validated LoginRequest userAndPassword) {
-        Authentication authentication = new UsernamePasswordAuthenticationToken(userAndPassword.username(), userAndPassword.password());
-        authentication = authenticationManager.authenticate(authentication);
+    public ResponseEntity<TokenResponse> authorize(@RequestBody @Validated LoginRequest userAndPassword, HttpServletRequest request) {
+        loginThrottle.acquire(userAndPassword.username(), request.getRemoteAddr());
+
+        Authentication loginToken = new UsernamePasswordAuthenticationToken(userAndPassword.username(), userAndPassword.password());
+        Authentication authentication = loginExecutor.execute(() -> authenticationManager.authenticate(loginToken));
         SecurityContextHolder.getContext().setAuthentication(authentication);
 
         String jwt = jwtUtils.generateToken(authentication);
@@ -66,11 +89,48 @@ public class AuthorizeController {
     )
     // @formatter:on
     @GetMapping("/who-am-i")
-    public ResponseEntity<UserDTO> whoami(@AuthenticationPrincipal JWTokenUserDetails userDetails) {
-        return ResponseEntity.ok(userService.whoami(userDetails));
+    public ResponseEntity<UserDTO> whoami(@AuthenticationPrincipal JWTokenUserDetails userDetails, WebRequest request) {
+        if (request.checkNotModified(HelperETag.fromVersion(userService.getMyVersion(userDetails)))) {
+            return null;
+        }
+
+        UserDTO user = userService.whoami(userDetails);
+        return ResponseEntity.ok().eTag(HelperETag.fromVersion(user.getVersion())).body(user);
+    }
+
+    // @formatter:off
+    @Operation(
+        method = "POST",
+        description = "Logout user, revoking the current token",
+        summary = "Logout user"
+    )
+    // @formatter:on
+    @Audit(activity = AuditActivity.USER_OPERATION, type = AuditTypeOperation.LOGOUT)
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(HttpServletRequest request) {
+        tokenRevocationService.revoke(jwtUtils.parseJwt(request));
+
+        return ResponseEntity.ok().build();
+    }
+
+    // @formatter:off
+    @Operation(
+        method = "POST",
+        description = "Revoke a token issued to any user",
+        summary = "Revoke a token"
+    )
+    // @formatter:on
+    @PreAuthorize("hasRole('ADMIN')")
+    @Audit(activity = AuditActivity.USER_OPERATION, type = AuditTypeOperation.UPDATE)
+    @PostMapping("/revoke")
+    public ResponseEntity<Void> revoke(@RequestBody @Validated RevokeTokenRequest revokeTokenRequest) {
+        tokenRevocationService.revoke(revokeTokenRequest.token());
+
+        return ResponseEntity.ok().build();
     }
 
 }
 
 record LoginRequest(String username, String password) {}
 record TokenResponse(String token) {}
+record RevokeTokenRequest(String token) {}
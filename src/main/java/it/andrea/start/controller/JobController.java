@@ -1,5 +1,6 @@
 package it.andrea.start.controller;
 
+import java.time.Duration;
 import java.util.Collection;
 
 import org.springframework.http.ResponseEntity;
@@ -9,11 +10,17 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import it.andrea.start.dto.JobInfoDTO;
+import it.andrea.start.dto.job.JobExecutionDTO;
+import it.andrea.start.dto.job.JobExecutionStatsDTO;
+import it.andrea.start.dto.job.JobGroupLimitDTO;
+import it.andrea.start.dto.job.ShardRunDTO;
+import it.andrea.start.service.job.JobExecutionService;
 import it.andrea.start.service.job.JobInfoService;
 
 @Tag(name = "Job Info API", description = "API for job scheduler management")
@@ -23,9 +30,11 @@ import it.andrea.start.service.job.JobInfoService;
 public class JobController {
 
     private final JobInfoService jobInfoService;
+    private final JobExecutionService jobExecutionService;
 
-    public JobController(JobInfoService jobInfoService) {
+    public JobController(JobInfoService jobInfoService, JobExecutionService jobExecutionService) {
         this.jobInfoService = jobInfoService;
+        this.jobExecutionService = jobExecutionService;
     }
 
     // @formatter:off
@@ -39,6 +48,39 @@ public class JobController {
         return ResponseEntity.ok(jobInfoService.listJobs());
     }
 
+    // @formatter:off
+    @Operation(
+        summary = "Ultime esecuzioni di un job",
+        description = "Restituisce le esecuzioni più recenti del job, dalla più nuova alla più vecchia (massimo 500)."
+    )
+    // @formatter:on
+    @GetMapping("/executions/{group}/{name}")
+    public ResponseEntity<Collection<JobExecutionDTO>> listExecutions(@PathVariable String group, @PathVariable String name, @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(jobExecutionService.listRecent(name, group, limit));
+    }
+
+    // @formatter:off
+    @Operation(
+        summary = "Ultime esecuzioni a shard di un job",
+        description = "Restituisce le esecuzioni più recenti di un job suddiviso in shard, con il numero di shard completati e falliti e lo stato aggregato."
+    )
+    // @formatter:on
+    @GetMapping("/shards/{group}/{name}")
+    public ResponseEntity<Collection<ShardRunDTO>> listShardRuns(@PathVariable String group, @PathVariable String name, @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(jobExecutionService.listShardRuns(name, group, limit));
+    }
+
+    // @formatter:off
+    @Operation(
+        summary = "Statistiche di durata dei job",
+        description = "Restituisce per ogni job numero di esecuzioni, errori e durata p50/p95/massima nelle ultime ore indicate."
+    )
+    // @formatter:on
+    @GetMapping("/executions/stats")
+    public ResponseEntity<Collection<JobExecutionStatsDTO>> executionStats(@RequestParam(defaultValue = "24") int hours) {
+        return ResponseEntity.ok(jobExecutionService.stats(Duration.ofHours(Math.max(hours, 1))));
+    }
+
     // @formatter:off
     @Operation(
         summary = "Pianifica un nuovo job",
@@ -131,4 +173,64 @@ public class JobController {
         return ResponseEntity.ok().build();
     }
 
+    // @formatter:off
+    @Operation(
+        summary = "Aggiorna la priorità di un job",
+        description = "Imposta la priorità del trigger Quartz: a parità di orario di esecuzione, i trigger con priorità maggiore vengono eseguiti per primi."
+    )
+    // @formatter:on
+    @PutMapping("/priority/{group}/{name}")
+    public ResponseEntity<Void> updateJobPriority(@PathVariable String group, @PathVariable String name, @RequestParam int priority) {
+        jobInfoService.updateJobPriority(name, group, priority);
+
+        return ResponseEntity.ok().build();
+    }
+
+    // @formatter:off
+    @Operation(
+        summary = "Lista i limiti di concorrenza dei gruppi",
+        description = "Restituisce per ogni gruppo con un limite configurato il numero massimo di job concorrenti e quelli attualmente in esecuzione."
+    )
+    // @formatter:on
+    @GetMapping("/groups/limits")
+    public ResponseEntity<Collection<JobGroupLimitDTO>> listGroupLimits() {
+        return ResponseEntity.ok(jobInfoService.listGroupLimits());
+    }
+
+    // @formatter:off
+    @Operation(
+        summary = "Imposta il limite di concorrenza di un gruppo",
+        description = "Le esecuzioni che superano il limite del gruppo vengono saltate, così un gruppo non può occupare tutto il thread pool."
+    )
+    // @formatter:on
+    @PutMapping("/groups/{group}/limit")
+    public ResponseEntity<JobGroupLimitDTO> updateGroupLimit(@PathVariable String group, @RequestParam int maxConcurrent) {
+        return ResponseEntity.ok(jobInfoService.updateGroupLimit(group, maxConcurrent));
+    }
+
+    // @formatter:off
+    @Operation(
+        summary = "Rimuovi il limite di concorrenza di un gruppo",
+        description = "I job del gruppo tornano a essere limitati solo dal thread pool dello scheduler."
+    )
+    // @formatter:on
+    @DeleteMapping("/groups/{group}/limit")
+    public ResponseEntity<Void> deleteGroupLimit(@PathVariable String group) {
+        jobInfoService.deleteGroupLimit(group);
+        return ResponseEntity.noContent().build();
+    }
+
+    // @formatter:off
+    @Operation(
+        summary = "Interrompi un job in esecuzione",
+        description = "Chiede alle esecuzioni in corso del job di fermarsi. I job a chunk si fermano dopo il chunk corrente e riprendono dal checkpoint alla prossima esecuzione."
+    )
+    // @formatter:on
+    @PutMapping("/interrupt/{group}/{name}")
+    public ResponseEntity<Void> interruptJob(@PathVariable String group, @PathVariable String name) {
+        jobInfoService.interruptJob(name, group);
+
+        return ResponseEntity.ok().build();
+    }
+
 }
\ No newline at end of file
@@ -7,11 +7,16 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import it.andrea.start.dto.LanguageDTO;
 import it.andrea.start.service.language.LanguageService;
+import it.andrea.start.utils.HelperETag;
 
 @Tag(name = "Language API", description = "API for languages")
 @RestController
@@ -19,11 +24,14 @@ import it.andrea.start.service.language.LanguageService;
 @PreAuthorize("hasRole('GUEST')")
 public class LanguageController {
     
-    private LanguageService languageService;
+    private final Collection<LanguageDTO> availableLanguages;
+    private final String availableLanguagesETag;
     
-    public LanguageController(LanguageService languageService) {
+    public LanguageController(LanguageService languageService, ObjectMapper objectMapper) throws JsonProcessingException {
         super();
-        this.languageService = languageService;
+        // Static data: built and tagged once, from the serialized body so the tag is the same on every node and restart
+        this.availableLanguages = languageService.getAvailableLanguages();
+        this.availableLanguagesETag = HelperETag.fromContent(objectMapper.writeValueAsBytes(availableLanguages));
     }
 
     // @formatter:off
@@ -33,8 +41,12 @@ public class LanguageController {
     )
     // @formatter:on
     @GetMapping("/available")
-    public ResponseEntity<Collection<LanguageDTO>> listAvailableLanguages() {
-        return ResponseEntity.ok(languageService.getAvailableLanguages());
+    public ResponseEntity<Collection<LanguageDTO>> listAvailableLanguages(WebRequest request) {
+        if (request.checkNotModified(availableLanguagesETag)) {
+            return null;
+        }
+
+        return ResponseEntity.ok().eTag(availableLanguagesETag).body(availableLanguages);
     }
     
 }
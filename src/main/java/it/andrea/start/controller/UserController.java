@@ -1,7 +1,17 @@
 package it.andrea.start.controller;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -12,30 +22,60 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import it.andrea.start.annotation.Audit;
 import it.andrea.start.constants.AuditActivity;
 import it.andrea.start.constants.AuditTypeOperation;
+import it.andrea.start.constants.ExportFormat;
+import it.andrea.start.constants.RoleType;
+import it.andrea.start.constants.UserStatus;
+import it.andrea.start.dto.CursorSliceDTO;
+import it.andrea.start.dto.user.UserBulkResultDTO;
 import it.andrea.start.dto.user.UserDTO;
+import it.andrea.start.dto.user.UserImportReportDTO;
 import it.andrea.start.searchcriteria.user.UserSearchCriteria;
 import it.andrea.start.security.service.JWTokenUserDetails;
+import it.andrea.start.service.user.UserExportService;
+import it.andrea.start.service.user.UserImportService;
 import it.andrea.start.service.user.UserService;
+import it.andrea.start.utils.HelperETag;
 import it.andrea.start.validator.OnCreate;
+import jakarta.servlet.http.HttpServletRequest;
 
 @Tag(name = "User API", description = "API for user CRUD operations")
 @RestController
 @RequestMapping("/api/user")
 public class UserController {
 
+    private static final String TEXT_CSV_VALUE = "text/csv";
+
     private final UserService userService;
+    private final UserImportService userImportService;
+    private final UserExportService userExportService;
+    private final Duration exportTimeout;
 
-    public UserController(UserService userService) {
+    public UserController(
+            UserService userService, //
+            UserImportService userImportService, //
+            UserExportService userExportService, //
+            @Value("${app.user.export.timeout}") Duration exportTimeout) {
         super();
         this.userService = userService;
+        this.userImportService = userImportService;
+        this.userExportService = userExportService;
+        this.exportTimeout = exportTimeout;
     }
 
     // @formatter:off
@@ -54,6 +94,38 @@ public class UserController {
         return ResponseEntity.ok(userService.create(userDTO, userDetails));
     }
 
+    // @formatter:off
+    @Operation(
+        description = "Importazione massiva di utenti da ADMIN o MANAGER con esito per riga",
+        summary = "Importazione massiva di utenti (JSON)"
+    )
+    // @formatter:on
+    @PreAuthorize("hasRole('MANAGER')")
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Audit(activity = AuditActivity.USER_OPERATION, type = AuditTypeOperation.IMPORT)
+    public ResponseEntity<UserImportReportDTO> importUsers(
+            @RequestBody List<UserDTO> users, //
+            @AuthenticationPrincipal JWTokenUserDetails userDetails) {
+
+        return ResponseEntity.ok(userImportService.importUsers(users, userDetails));
+    }
+
+    // @formatter:off
+    @Operation(
+        description = "Importazione massiva di utenti da file CSV (username,name,email,password,userStatus,roles,language; ruoli separati da |)",
+        summary = "Importazione massiva di utenti (CSV)"
+    )
+    // @formatter:on
+    @PreAuthorize("hasRole('MANAGER')")
+    @PostMapping(value = "/import", consumes = TEXT_CSV_VALUE)
+    @Audit(activity = AuditActivity.USER_OPERATION, type = AuditTypeOperation.IMPORT)
+    public ResponseEntity<UserImportReportDTO> importCsv(
+            HttpServletRequest request, //
+            @AuthenticationPrincipal JWTokenUserDetails userDetails) throws IOException {
+
+        return ResponseEntity.ok(userImportService.importCsv(request.getReader(), userDetails));
+    }
+
     // @formatter:off
     @Operation(
         method = "PUT",
@@ -67,10 +139,14 @@ public class UserController {
     public ResponseEntity<UserDTO> update(
             @PathVariable Long id, //
             @RequestBody UserDTO userDTO, //
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch, //
             @AuthenticationPrincipal JWTokenUserDetails userDetails) {
 
         userDTO.setId(id);
-        return ResponseEntity.ok(userService.update(userDTO, userDetails));
+        userDTO.setVersion(HelperETag.versionFromIfMatch(ifMatch));
+
+        UserDTO updated = userService.update(userDTO, userDetails);
+        return ResponseEntity.ok().eTag(HelperETag.fromVersion(updated.getVersion())).body(updated);
     }
 
     // @formatter:off
@@ -91,6 +167,54 @@ public class UserController {
         return ResponseEntity.ok().build();
     }
 
+    // @formatter:off
+    @Operation(
+        description = "Disattivazione massiva di utenti per id o criteri di ricerca; utenti ADMIN e MANAGER esclusi",
+        summary = "Disattivazione massiva di utenti"
+    )
+    // @formatter:on
+    @PreAuthorize("hasRole('MANAGER')")
+    @PostMapping("/bulk/deactivate")
+    @Audit(activity = AuditActivity.USER_OPERATION, type = AuditTypeOperation.BULK_UPDATE)
+    public ResponseEntity<UserBulkResultDTO> bulkDeactivate(
+            @RequestBody BulkUserRequest request, //
+            @AuthenticationPrincipal JWTokenUserDetails userDetails) {
+
+        return ResponseEntity.ok(userService.bulkUpdateStatus(request.ids(), request.criteria(), UserStatus.DEACTIVATE, userDetails));
+    }
+
+    // @formatter:off
+    @Operation(
+        description = "Riattivazione massiva di utenti per id o criteri di ricerca; utenti ADMIN e MANAGER esclusi",
+        summary = "Riattivazione massiva di utenti"
+    )
+    // @formatter:on
+    @PreAuthorize("hasRole('MANAGER')")
+    @PostMapping("/bulk/activate")
+    @Audit(activity = AuditActivity.USER_OPERATION, type = AuditTypeOperation.BULK_UPDATE)
+    public ResponseEntity<UserBulkResultDTO> bulkActivate(
+            @RequestBody BulkUserRequest request, //
+            @AuthenticationPrincipal JWTokenUserDetails userDetails) {
+
+        return ResponseEntity.ok(userService.bulkUpdateStatus(request.ids(), request.criteria(), UserStatus.ACTIVE, userDetails));
+    }
+
+    // @formatter:off
+    @Operation(
+        description = "Assegnazione massiva dei ruoli a utenti per id o criteri di ricerca; i ruoli esistenti vengono sostituiti",
+        summary = "Assegnazione massiva dei ruoli"
+    )
+    // @formatter:on
+    @PreAuthorize("hasRole('MANAGER')")
+    @PutMapping("/bulk/roles")
+    @Audit(activity = AuditActivity.USER_OPERATION, type = AuditTypeOperation.BULK_UPDATE)
+    public ResponseEntity<UserBulkResultDTO> bulkAssignRoles(
+            @RequestBody BulkRolesRequest request, //
+            @AuthenticationPrincipal JWTokenUserDetails userDetails) {
+
+        return ResponseEntity.ok(userService.bulkAssignRoles(request.ids(), request.criteria(), request.roles(), userDetails));
+    }
+
     // @formatter:off
     @Operation(
         description = "Informazioni di un utente",
@@ -100,8 +224,13 @@ public class UserController {
     @PreAuthorize("hasRole('MANAGER')")
     @GetMapping("/{id}")
     @Audit(activity = AuditActivity.USER_OPERATION, type = AuditTypeOperation.GET_INFO)
-    public ResponseEntity<UserDTO> getById(@PathVariable Long id) {
-        return ResponseEntity.ok(userService.getById(id));
+    public ResponseEntity<UserDTO> getById(@PathVariable Long id, WebRequest request) {
+        if (request.checkNotModified(HelperETag.fromVersion(userService.getVersion(id)))) {
+            return null;
+        }
+
+        UserDTO user = userService.getById(id);
+        return ResponseEntity.ok().eTag(HelperETag.fromVersion(user.getVersion())).body(user);
     }
 
     // @formatter:off
@@ -122,6 +251,53 @@ public class UserController {
         return ResponseEntity.ok(users);
     }
 
+    // @formatter:off
+    @Operation(
+        description = "Scorrimento degli utenti per cursore, ordinati per username, senza conteggio totale",
+        summary = "Scorrimento degli utenti"
+    )
+    // @formatter:on
+    @PreAuthorize("hasRole('USER')")
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorSliceDTO<UserDTO>> scrollUser(
+            UserSearchCriteria searchCriteria, //
+            @RequestParam(required = false) String cursor, //
+            @RequestParam(defaultValue = "20") int size, //
+            @AuthenticationPrincipal JWTokenUserDetails userDetails) {
+
+        return ResponseEntity.ok(userService.scroll(searchCriteria, cursor, size, userDetails));
+    }
+
+    // @formatter:off
+    @Operation(
+        description = "Esportazione in streaming di tutti gli utenti in formato CSV o NDJSON",
+        summary = "Esportazione degli utenti"
+    )
+    // @formatter:on
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/export")
+    @Audit(activity = AuditActivity.USER_OPERATION, type = AuditTypeOperation.EXPORT)
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "CSV") ExportFormat format, WebRequest webRequest) {
+        StreamingResponseBody body = out -> userExportService.export(format, out);
+
+        // A full export outlives the default async timeout: extend it for this request only
+        WebAsyncUtils.getAsyncManager(webRequest).registerCallableInterceptor(UserController.class.getName(), new CallableProcessingInterceptor() {
+            @Override
+            public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+                if (request instanceof AsyncWebRequest asyncWebRequest) {
+                    asyncWebRequest.setTimeout(exportTimeout.toMillis());
+                }
+            }
+        });
+
+        // @formatter:off
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename("users." + format.getExtension()).build().toString())
+                .body(body);
+        // @formatter:on
+    }
+
     // @formatter:off
     @Operation(
         description = "Cambio password da ADMIN",
@@ -162,3 +338,7 @@ public class UserController {
 }
 
 record ChangePassword(String newPassword, String repeatPassword) {}
+
+record BulkUserRequest(List<Long> ids, UserSearchCriteria criteria) {}
+
+record BulkRolesRequest(List<Long> ids, UserSearchCriteria criteria, Set<RoleType> roles) {}
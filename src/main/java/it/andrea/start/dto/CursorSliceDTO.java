@@ -0,0 +1,26 @@
+package it.andrea.start.dto;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CursorSliceDTO<T extends Serializable> implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = -3174659227913357027L;
+
+    private List<T> content;
+    private String nextCursor;
+    private boolean hasNext;
+
+}
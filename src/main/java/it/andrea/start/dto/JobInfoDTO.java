@@ -18,6 +18,8 @@ public class JobInfoDTO {
     private Long repeatIntervalMillis;
     private Long initialDelayMillis;
     private Integer repeatCount;
+    private Integer priority;
+    private Integer shardCount;
 
     private String jobDataMapJson;
 
@@ -0,0 +1,8 @@
+package it.andrea.start.dto.audit;
+
+// Implemented by results of @Audit methods that describe what they changed: stored on the same audit record
+public interface AuditSummary {
+
+    String toAuditSummary();
+
+}
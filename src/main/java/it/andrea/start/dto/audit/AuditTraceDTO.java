@@ -42,4 +42,6 @@ public class AuditTraceDTO implements Serializable {
 
     private String exceptionType;
     private String exceptionMessage;
+
+    private String resultSummary;
 }
\ No newline at end of file
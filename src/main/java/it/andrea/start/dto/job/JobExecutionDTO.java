@@ -0,0 +1,29 @@
+package it.andrea.start.dto.job;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.Instant;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class JobExecutionDTO implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 4207718336164283597L;
+
+    private String jobName;
+    private String jobGroup;
+    private Instant firedAt;
+    private long durationMs;
+    private boolean success;
+    private String errorType;
+
+}
@@ -0,0 +1,26 @@
+package it.andrea.start.dto.job;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class JobExecutionStatsDTO implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = -2391585270514476018L;
+
+    private String jobName;
+    private String jobGroup;
+    private long executions;
+    private long failures;
+    private long p50Ms;
+    private long p95Ms;
+    private long maxMs;
+
+}
@@ -0,0 +1,22 @@
+package it.andrea.start.dto.job;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class JobGroupLimitDTO implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 7794330211675140582L;
+
+    private String jobGroup;
+    private int maxConcurrent;
+    private int running;
+
+}
@@ -0,0 +1,33 @@
+package it.andrea.start.dto.job;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.Instant;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import it.andrea.start.constants.ShardRunStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ShardRunDTO implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = -5167402914482839315L;
+
+    private String id;
+    private String jobName;
+    private String jobGroup;
+    private int shardCount;
+    private int completed;
+    private int failed;
+    private ShardRunStatus status;
+    private Instant startedAt;
+    private Instant finishedAt;
+
+}
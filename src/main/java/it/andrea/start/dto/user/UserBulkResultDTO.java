@@ -0,0 +1,36 @@
+package it.andrea.start.dto.user;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import it.andrea.start.dto.audit.AuditSummary;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserBulkResultDTO implements Serializable, AuditSummary {
+
+    @Serial
+    private static final long serialVersionUID = 6618493102257338741L;
+
+    private Integer requested;
+    private int affected;
+
+    // Only for the audit trail: criteria-based calls would otherwise not record which users changed
+    @JsonIgnore
+    private List<String> usernames;
+
+    @Override
+    public String toAuditSummary() {
+        return "requested=" + requested + ", affected=" + affected + ", usernames=" + usernames;
+    }
+
+}
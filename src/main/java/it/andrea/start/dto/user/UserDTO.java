@@ -4,6 +4,7 @@ import java.io.Serial;
 import java.io.Serializable;
 import java.util.Set;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 
 import it.andrea.start.constants.RoleType;
@@ -53,6 +54,9 @@ public class UserDTO implements Serializable {
 
     private String language;
 
+    @JsonIgnore
+    private Long version;
+
     @NotBlank(message = "{error.user.password.null}", groups = OnCreate.class)
     @Size(min = 8, max = 30, message = "{error.user.password.wrong.length}", groups = OnCreate.class)
     private transient String password;
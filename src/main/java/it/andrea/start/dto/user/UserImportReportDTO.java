@@ -0,0 +1,24 @@
+package it.andrea.start.dto.user;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserImportReportDTO implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = -2291836013507760462L;
+
+    private int total;
+    private int created;
+    private int rejected;
+    private List<UserImportRowDTO> rows;
+
+}
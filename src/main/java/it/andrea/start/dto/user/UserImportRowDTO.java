@@ -0,0 +1,29 @@
+package it.andrea.start.dto.user;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import it.andrea.start.constants.UserImportStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserImportRowDTO implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 4127760583417210566L;
+
+    private int row;
+    private String username;
+    private Long id;
+    private UserImportStatus status;
+    private String errorCode;
+    private String message;
+
+}
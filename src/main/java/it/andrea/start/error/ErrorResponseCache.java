@@ -0,0 +1,92 @@
+package it.andrea.start.error;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.context.MessageSource;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import it.andrea.start.constants.Language;
+import it.andrea.start.error.exception.ErrorCode;
+
+@Component
+public class ErrorResponseCache {
+
+    private static final byte[] TIMESTAMP_PREFIX = "{\"timestamp\":\"".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] PATH_SUFFIX = "\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final Map<ErrorCode, Map<Language, ErrorTemplate>> templates = new EnumMap<>(ErrorCode.class);
+
+    public ErrorResponseCache(MessageSource messageSource, ObjectMapper objectMapper) throws JsonProcessingException {
+        for (ErrorCode errorCode : ErrorCode.values()) {
+            Map<Language, ErrorTemplate> byLanguage = new EnumMap<>(Language.class);
+            for (Language language : Language.values()) {
+                String localized = messageSource.getMessage(errorCode.getCode(), null, null, language.getLocale());
+                String message = localized != null ? localized : errorCode.getDefaultMessage();
+
+                // Same field order and naming as the Jackson serialization of ApiError
+                // @formatter:off
+                String body = "\",\"status\":" + errorCode.getHttpStatus().value()
+                        + ",\"error\":" + objectMapper.writeValueAsString(errorCode.getHttpStatus().getReasonPhrase())
+                        + ",\"code\":" + objectMapper.writeValueAsString(errorCode.getCode())
+                        + ",\"message\":" + objectMapper.writeValueAsString(message)
+                        + ",\"path\":\"";
+                // @formatter:on
+
+                byLanguage.put(language, new ErrorTemplate(message, localized != null, body.getBytes(StandardCharsets.UTF_8)));
+            }
+            templates.put(errorCode, byLanguage);
+        }
+    }
+
+    public String getMessage(ErrorCode errorCode, Locale locale) {
+        return templates.get(errorCode).get(resolveLanguage(locale)).message();
+    }
+
+    // False when the bundles have no message for the code and the template carries the ErrorCode default
+    public boolean isLocalized(ErrorCode errorCode, Locale locale) {
+        return templates.get(errorCode).get(resolveLanguage(locale)).localized();
+    }
+
+    public byte[] render(ErrorCode errorCode, Locale locale, String path) {
+        ErrorTemplate template = templates.get(errorCode).get(resolveLanguage(locale));
+        byte[] timestamp = Instant.now().toString().getBytes(StandardCharsets.ISO_8859_1);
+        byte[] escapedPath = path != null ? JsonStringEncoder.getInstance().quoteAsUTF8(path) : new byte[0];
+
+        byte[] response = new byte[TIMESTAMP_PREFIX.length + timestamp.length + template.body().length + escapedPath.length + PATH_SUFFIX.length];
+        int offset = append(response, 0, TIMESTAMP_PREFIX);
+        offset = append(response, offset, timestamp);
+        offset = append(response, offset, template.body());
+        offset = append(response, offset, escapedPath);
+        append(response, offset, PATH_SUFFIX);
+        return response;
+    }
+
+    public static Language resolveLanguage(Locale locale) {
+        if (locale == null) {
+            return Language.getDefault();
+        }
+        for (Language language : Language.values()) {
+            if (language.getLocale().equals(locale)) {
+                return language;
+            }
+        }
+        return Language.fromTag(locale.toLanguageTag()).orElse(Language.getDefault());
+    }
+
+    private static int append(byte[] target, int offset, byte[] source) {
+        System.arraycopy(source, 0, target, offset, source.length);
+        return offset + source.length;
+    }
+
+    private record ErrorTemplate(String message, boolean localized, byte[] body) {
+    }
+
+}
@@ -13,6 +13,7 @@ public enum ErrorCode {
     ERROR_PERSISTENCE_EXCEPTION("error.persistence.exception", "A database persistence error occurred.", HttpStatus.INTERNAL_SERVER_ERROR, null),
     ERROR_CONSTRAINT_VIOLATION("error.constraint.violation", "A data integrity constraint was violated.", HttpStatus.CONFLICT, null),
     ERROR_SQL_GENERIC("error.sql.generic", "A generic SQL error occurred.", HttpStatus.INTERNAL_SERVER_ERROR, null),
+    ERROR_PRECONDITION_FAILED("error.precondition.failed", "The resource has been modified by another request.", HttpStatus.PRECONDITION_FAILED, null),
     ERROR_NULL_POINTER("error.null.pointer", "A null pointer exception occurred.", HttpStatus.INTERNAL_SERVER_ERROR, null),
 
     // --- Authorization Login Errors ---
@@ -27,6 +28,9 @@ public enum ErrorCode {
     AUTHORIZEUSER_PASSWORD_NULL("authorize.user.password.null", "Password cannot be null.", HttpStatus.BAD_REQUEST, "User"),
     AUTHORIZEUSER_USER_NOT_FOUND("authorize.user.user.not.found", "User not found.", HttpStatus.UNAUTHORIZED, "User"),
     AUTHORIZEUSER_PASSWORD_WRONG("authorize.user.password.wrong", "Incorrect password.", HttpStatus.UNAUTHORIZED, "User"),
+    AUTHORIZE_TOO_MANY_ATTEMPTS("authorize.too.many.attempts", "Too many login attempts, retry later.", HttpStatus.TOO_MANY_REQUESTS, "User"),
+    AUTHORIZE_LOGIN_BUSY("authorize.login.busy", "Login service is busy, retry later.", HttpStatus.TOO_MANY_REQUESTS, "User"),
+    AUTHORIZE_TOKEN_INVALID("authorize.token.invalid", "Token is invalid or expired.", HttpStatus.BAD_REQUEST, "Token"),
 
     // --- User Management Errors (Logica Applicativa) ---
     USER_ID_NULL("error.user.id.null", "User ID cannot be null.", HttpStatus.BAD_REQUEST, "User"),
@@ -45,12 +49,17 @@ public enum ErrorCode {
     USER_ROLE_MANAGER_NOT_DELETE("error.user.role.manager.not.delete", "Manager user cannot be deleted.", HttpStatus.FORBIDDEN, "User"),
     USER_ROLE_ADMIN_NOT_CHANGE_PASSWORD("error.user.role.admin.not.change.password", "Admin user password cannot be changed this way.", HttpStatus.FORBIDDEN, "User"),
     USER_ROLE_MANAGER_NOT_CHANGE_PASSWORD("error.user.role.manager.not.change.password", "Manager user password cannot be changed this way.", HttpStatus.FORBIDDEN, "User"),
+    USER_CURSOR_INVALID("error.user.cursor.invalid", "Invalid pagination cursor.", HttpStatus.BAD_REQUEST, "User"),
+    USER_IMPORT_TOO_MANY_ROWS("error.user.import.too.many.rows", "Import exceeds the maximum of {0} rows.", HttpStatus.BAD_REQUEST, "User"),
+    USER_IMPORT_CSV_INVALID("error.user.import.csv.invalid", "Invalid CSV file at line {0}.", HttpStatus.BAD_REQUEST, "User"),
+    USER_BULK_TARGET_REQUIRED("error.user.bulk.target.required", "A list of ids or at least one search filter is required.", HttpStatus.BAD_REQUEST, "User"),
     USER_REPEAT_PASSWORD_NOT_EQUAL("error.user.repeat.password.not.equal", "The repeated password does not match.", HttpStatus.BAD_REQUEST, "User"),
 
     // --- Job Logic Errors ---
     JOB_NOT_FOUND_EXCEPTION("job.not.found.exception", "Job {0}//{1} not found.", HttpStatus.NOT_FOUND, "Job"),
     JOB_SCHEDULING_EXCEPTION("job.scheduling.exception", "An error occurred during job {0}//{1} scheduling.", HttpStatus.INTERNAL_SERVER_ERROR, "Job"),
-    JOB_CONTROL_EXCEPTION("job.control.exception", "An error occurred during job control.", HttpStatus.INTERNAL_SERVER_ERROR, "Job");
+    JOB_CONTROL_EXCEPTION("job.control.exception", "An error occurred during job control.", HttpStatus.INTERNAL_SERVER_ERROR, "Job"),
+    JOB_GROUP_LIMIT_INVALID("job.group.limit.invalid", "The concurrency limit of job group {0} must be at least 1.", HttpStatus.BAD_REQUEST, "Job");
 
     private final String code;
     private final String defaultMessage; 
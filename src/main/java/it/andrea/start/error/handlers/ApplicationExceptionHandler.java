@@ -1,10 +1,13 @@
 package it.andrea.start.error.handlers;
 
+import java.util.Locale;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -12,6 +15,7 @@ import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.context.request.WebRequest;
 
 import it.andrea.start.error.ApiError;
+import it.andrea.start.error.ErrorResponseCache;
 import it.andrea.start.error.exception.ApplicationException;
 import it.andrea.start.error.exception.ErrorCode;
 import lombok.RequiredArgsConstructor;
@@ -23,12 +27,18 @@ public class ApplicationExceptionHandler {
     private static final Logger LOG = LoggerFactory.getLogger(ApplicationExceptionHandler.class);
 
     private final MessageSource messageSource;
+    private final ErrorResponseCache errorResponseCache;
 
     @ExceptionHandler(ApplicationException.class)
-    public ResponseEntity<ApiError> handleApplicationException(ApplicationException ex, WebRequest request) {
+    public ResponseEntity<?> handleApplicationException(ApplicationException ex, WebRequest request) {
         ErrorCode errorCode = ex.getErrorCode();
         HttpStatus status = errorCode.getHttpStatus();
 
+        Object[] messageArguments = ex.getMessageArguments();
+        if (messageArguments == null || messageArguments.length == 0) {
+            return cachedResponse(ex, errorCode, ((ServletWebRequest) request).getRequest().getRequestURI());
+        }
+
         // @formatter:off
         String message = messageSource.getMessage(
                 errorCode.getCode(),
@@ -52,4 +62,22 @@ public class ApplicationExceptionHandler {
         return new ResponseEntity<>(apiError, ex.getErrorCode().getHttpStatus());
     }
 
+    private ResponseEntity<byte[]> cachedResponse(ApplicationException ex, ErrorCode errorCode, String path) {
+        HttpStatus status = errorCode.getHttpStatus();
+        Locale locale = LocaleContextHolder.getLocale();
+
+        if (status.is5xxServerError()) {
+            LOG.error("ApplicationException Occurred: Code={}, Status={}, Path={}, Message={}", errorCode.getCode(), status, path, errorResponseCache.getMessage(errorCode, locale), ex);
+        } else {
+            LOG.warn("ApplicationException Occurred: Code={}, Status={}, Path={}, Message={}", errorCode.getCode(), status, path, errorResponseCache.getMessage(errorCode, locale));
+        }
+
+        // @formatter:off
+        return ResponseEntity
+                .status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(errorResponseCache.render(errorCode, locale, path));
+        // @formatter:on
+    }
+
 }
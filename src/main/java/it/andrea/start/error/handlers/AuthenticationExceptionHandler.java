@@ -1,10 +1,12 @@
 package it.andrea.start.error.handlers;
 
+import java.util.Locale;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -13,6 +15,7 @@ import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.context.request.WebRequest;
 
 import it.andrea.start.error.ApiError;
+import it.andrea.start.error.ErrorResponseCache;
 import it.andrea.start.error.exception.ErrorCode;
 import lombok.AllArgsConstructor;
 
@@ -22,30 +25,28 @@ public class AuthenticationExceptionHandler {
 
     private static final Logger LOG = LoggerFactory.getLogger(AuthenticationExceptionHandler.class);
 
-    private final MessageSource messageSource;
+    private final ErrorResponseCache errorResponseCache;
 
     @ExceptionHandler(AuthenticationException.class)
-    public ResponseEntity<ApiError> handleApplicationException(AuthenticationException ex, WebRequest request) {
+    public ResponseEntity<?> handleApplicationException(AuthenticationException ex, WebRequest request) {
         ErrorCode errorCode = ErrorCode.AUTHENTICATION_FAILED;
         HttpStatus status = errorCode.getHttpStatus();
-        
-        // @formatter:off
-        String message = messageSource.getMessage(
-                errorCode.getCode(),
-                null,
-                ex.getMessage(),
-                LocaleContextHolder.getLocale());
-
-        ApiError apiError = new ApiError(
-                status,
-                errorCode,
-                message,
-                ((ServletWebRequest) request).getRequest().getRequestURI());
-        // @formatter:on
+        String path = ((ServletWebRequest) request).getRequest().getRequestURI();
+        Locale locale = LocaleContextHolder.getLocale();
 
-        LOG.warn("AuthenticationException Occurred: Code={}, Status={}, Path={}, Message={}", errorCode.getCode(), status, apiError.path(), message);
+        LOG.warn("AuthenticationException Occurred: Code={}, Status={}, Path={}, Message={}", errorCode.getCode(), status, path, ex.getMessage());
 
-        return new ResponseEntity<>(apiError, errorCode.getHttpStatus());
+        // Without a bundle message the cause from the exception is more useful than the generic default
+        if (!errorResponseCache.isLocalized(errorCode, locale) && ex.getMessage() != null) {
+            return new ResponseEntity<>(new ApiError(status, errorCode, ex.getMessage(), path), status);
+        }
+
+        // @formatter:off
+        return ResponseEntity
+                .status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(errorResponseCache.render(errorCode, locale, path));
+        // @formatter:on
     }
 
 }
@@ -2,16 +2,17 @@ package it.andrea.start.error.handlers;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.context.request.WebRequest;
 
-import it.andrea.start.error.ApiError;
+import it.andrea.start.error.ErrorResponseCache;
 import it.andrea.start.error.exception.ErrorCode;
 import lombok.RequiredArgsConstructor;
 
@@ -21,30 +22,37 @@ public class GenericExceptionHandler {
 
     private static final Logger LOG = LoggerFactory.getLogger(GenericExceptionHandler.class);
 
-    private final MessageSource messageSource;
+    private final ErrorResponseCache errorResponseCache;
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<byte[]> handleOptimisticLockingFailure(OptimisticLockingFailureException ex, WebRequest request) {
+        ErrorCode errorCode = ErrorCode.ERROR_PRECONDITION_FAILED;
+        String path = ((ServletWebRequest) request).getRequest().getRequestURI();
+
+        LOG.warn("Concurrent modification detected: Path={}, Message={}", path, ex.getMessage());
+
+        // @formatter:off
+        return ResponseEntity
+                .status(errorCode.getHttpStatus())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(errorResponseCache.render(errorCode, LocaleContextHolder.getLocale(), path));
+        // @formatter:on
+    }
 
     @ExceptionHandler(Exception.class)
-    public ResponseEntity<ApiError> handleGenericException(Exception ex, WebRequest request) {
+    public ResponseEntity<byte[]> handleGenericException(Exception ex, WebRequest request) {
         HttpStatus status = HttpStatus.INTERNAL_SERVER_ERROR;
         ErrorCode errorCode = ErrorCode.ERROR_INTERNAL_SERVER_ERROR;
+        String path = ((ServletWebRequest) request).getRequest().getRequestURI();
+
+        LOG.error("Unhandled Exception Occurred: Path={}, Message={}", path, ex.getMessage(), ex);
 
         // @formatter:off
-        String message = messageSource.getMessage(
-                errorCode.getCode(),
-                null,
-                "An unexpected error occurred",
-                LocaleContextHolder.getLocale());
-
-        ApiError apiError = new ApiError(
-                status,
-                errorCode,
-                message,
-                ((ServletWebRequest) request).getRequest().getRequestURI());
+        return ResponseEntity
+                .status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(errorResponseCache.render(errorCode, LocaleContextHolder.getLocale(), path));
         // @formatter:on
-
-        LOG.error("Unhandled Exception Occurred: Path={}, Message={}", apiError.path(), ex.getMessage(), ex);
-
-        return new ResponseEntity<>(apiError, status);
     }
 
 }
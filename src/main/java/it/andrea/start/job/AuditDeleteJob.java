@@ -4,47 +4,68 @@ import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.temporal.ChronoUnit;
+import java.util.List;
 
-import org.quartz.DisallowConcurrentExecution;
 import org.quartz.JobDataMap;
 import org.quartz.JobExecutionContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.lang.NonNull;
-import org.springframework.scheduling.quartz.QuartzJobBean;
 import org.springframework.stereotype.Component;
 
 import it.andrea.start.configuration.GlobalConfig;
+import it.andrea.start.job.chunk.AbstractChunkJob;
+import it.andrea.start.job.chunk.ChunkJobSupport;
 import it.andrea.start.service.audit.AuditTraceService;
-import lombok.AllArgsConstructor;
 
 @Component
-@DisallowConcurrentExecution
-@AllArgsConstructor
-public class AuditDeleteJob extends QuartzJobBean {
+public class AuditDeleteJob extends AbstractChunkJob<Long, Long> {
 
     private static final Logger LOG = LoggerFactory.getLogger(AuditDeleteJob.class);
 
+    private static final String DELETE_BEFORE_KEY = "deleteBefore";
+
     private final GlobalConfig globalConfig;
     private final AuditTraceService auditTraceService;
 
+    public AuditDeleteJob(ChunkJobSupport chunkJobSupport, GlobalConfig globalConfig, AuditTraceService auditTraceService) {
+        super(chunkJobSupport);
+        this.globalConfig = globalConfig;
+        this.auditTraceService = auditTraceService;
+    }
+
     @Override
-    public void executeInternal(@NonNull JobExecutionContext context) {
+    protected void open(JobExecutionContext context) {
         JobDataMap jobDataMap = context.getMergedJobDataMap();
         long retentionDays = jobDataMap.getIntValue("retentionDays");
         if (retentionDays <= 0) {
             retentionDays = globalConfig.getAuditSavedDay();
         }
 
-        Instant now = Instant.now();
-        LOG.info("Start at : {}", LocalDateTime.ofInstant(now, ZoneId.systemDefault()));
-
-        Instant deleteBefore = now.minus(retentionDays, ChronoUnit.DAYS);
+        Instant deleteBefore = Instant.now().minus(retentionDays, ChronoUnit.DAYS);
+        context.put(DELETE_BEFORE_KEY, deleteBefore);
         LOG.info("Delete audits before of : {}", LocalDateTime.ofInstant(deleteBefore, ZoneId.systemDefault()));
+    }
 
-        int rowDeleted = auditTraceService.deleteAuditTrace(deleteBefore);
-        LOG.info("Deleted audits : {}", rowDeleted);
+    @Override
+    protected List<Long> read(JobExecutionContext context, String checkpoint, int chunkSize) {
+        long afterId = checkpoint != null ? Long.parseLong(checkpoint) : 0L;
+        return auditTraceService.findAuditTraceIdsBefore((Instant) context.get(DELETE_BEFORE_KEY), afterId, chunkSize);
+    }
 
-        LOG.info("Ending at : {}", LocalDateTime.ofInstant(Instant.now(), ZoneId.systemDefault()));
+    @Override
+    protected Long process(Long id) {
+        return id;
     }
+
+    @Override
+    protected void write(List<Long> ids) {
+        int rowDeleted = auditTraceService.deleteAuditTraces(ids);
+        LOG.debug("Deleted audits : {}", rowDeleted);
+    }
+
+    @Override
+    protected String checkpointOf(Long id) {
+        return id.toString();
+    }
+
 }
@@ -0,0 +1,34 @@
+package it.andrea.start.job;
+
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.JobExecutionContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.quartz.QuartzJobBean;
+import org.springframework.stereotype.Component;
+
+import it.andrea.start.service.job.JobExecutionService;
+
+// Registered as a JobInfo like AuditDeleteJob: the clustered job store runs each fire on a single node
+@Component
+@DisallowConcurrentExecution
+public class JobExecutionPurgeJob extends QuartzJobBean {
+
+    private final JobExecutionService jobExecutionService;
+    private final int defaultRetentionDays;
+
+    public JobExecutionPurgeJob(
+            JobExecutionService jobExecutionService, //
+            @Value("${app.job-execution.retention-days}") int defaultRetentionDays) {
+
+        this.jobExecutionService = jobExecutionService;
+        this.defaultRetentionDays = defaultRetentionDays;
+    }
+
+    @Override
+    protected void executeInternal(@NonNull JobExecutionContext context) {
+        int retentionDays = context.getMergedJobDataMap().getIntValue("retentionDays");
+        jobExecutionService.purgeExpired(retentionDays > 0 ? retentionDays : defaultRetentionDays);
+    }
+
+}
@@ -0,0 +1,121 @@
+package it.andrea.start.job.chunk;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.InterruptableJob;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.quartz.QuartzJobBean;
+
+import it.andrea.start.models.job.JobCheckpoint;
+
+// Concurrent runs of the same job would overwrite each other's checkpoint
+@DisallowConcurrentExecution
+public abstract class AbstractChunkJob<I, O> extends QuartzJobBean implements InterruptableJob {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AbstractChunkJob.class);
+
+    private final ChunkJobSupport chunkJobSupport;
+
+    private volatile boolean interrupted;
+
+    protected AbstractChunkJob(ChunkJobSupport chunkJobSupport) {
+        this.chunkJobSupport = chunkJobSupport;
+    }
+
+    // Prepares the run from the merged JobDataMap, before the first chunk is read.
+    // Values computed for this run go in the context (context.put), not in fields of the job instance
+    protected void open(JobExecutionContext context) {
+    }
+
+    // Returns at most chunkSize items after the checkpoint (null on the first chunk), in checkpoint order
+    protected abstract List<I> read(JobExecutionContext context, String checkpoint, int chunkSize);
+
+    // Returns null to skip the item
+    protected abstract O process(I item);
+
+    protected abstract void write(List<O> items);
+
+    protected abstract String checkpointOf(I item);
+
+    @Override
+    protected final void executeInternal(@NonNull JobExecutionContext context) {
+        JobKey jobKey = context.getJobDetail().getKey();
+        int chunkSize = chunkJobSupport.chunkSize(context.getMergedJobDataMap());
+        open(context);
+
+        Optional<JobCheckpoint> resumed = chunkJobSupport.loadCheckpoint(jobKey);
+        String checkpoint = resumed.map(JobCheckpoint::getCheckpoint).orElse(null);
+        long processed = resumed.map(JobCheckpoint::getProcessed).orElse(0L);
+        if (resumed.isPresent()) {
+            LOG.info("Job {} ripreso dal checkpoint {} ({} elementi già elaborati)", jobKey, checkpoint, processed);
+        }
+
+        long started = System.nanoTime();
+        boolean completed = false;
+        while (!interrupted) {
+            long chunkStarted = System.nanoTime();
+            Chunk chunk = chunkJobSupport.inTransaction(chunkStep(context, jobKey, checkpoint, processed, chunkSize));
+            if (chunk == null) {
+                completed = true;
+                break;
+            }
+
+            checkpoint = chunk.checkpoint();
+            processed += chunk.items();
+            chunkJobSupport.recordChunk(jobKey, chunk.items(), System.nanoTime() - chunkStarted);
+            if (chunk.items() < chunkSize) {
+                completed = true;
+                break;
+            }
+        }
+
+        long elapsedMillis = Math.max((System.nanoTime() - started) / 1_000_000, 1);
+        if (completed) {
+            chunkJobSupport.clearCheckpoint(jobKey);
+            LOG.info("Job {} completato: {} elementi in {} ms ({} elementi/s)", jobKey, processed, elapsedMillis, processed * 1000 / elapsedMillis);
+        } else {
+            LOG.warn("Job {} interrotto al checkpoint {} dopo {} elementi, riprenderà alla prossima esecuzione", jobKey, checkpoint, processed);
+        }
+    }
+
+    @Override
+    public void interrupt() {
+        interrupted = true;
+    }
+
+    private Supplier<Chunk> chunkStep(JobExecutionContext context, JobKey jobKey, String checkpoint, long processed, int chunkSize) {
+        return () -> {
+            List<I> items = read(context, checkpoint, chunkSize);
+            if (items.isEmpty()) {
+                return null;
+            }
+
+            List<O> outputs = new ArrayList<>(items.size());
+            for (I item : items) {
+                O output = process(item);
+                if (output != null) {
+                    outputs.add(output);
+                }
+            }
+            if (!outputs.isEmpty()) {
+                write(outputs);
+            }
+
+            String next = checkpointOf(items.get(items.size() - 1));
+            chunkJobSupport.saveCheckpoint(jobKey, next, processed + items.size());
+            return new Chunk(next, items.size());
+        };
+    }
+
+    private record Chunk(String checkpoint, int items) {
+    }
+
+}
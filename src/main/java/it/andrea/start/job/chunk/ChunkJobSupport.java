@@ -0,0 +1,78 @@
+package it.andrea.start.job.chunk;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.quartz.JobDataMap;
+import org.quartz.JobKey;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import it.andrea.start.models.job.JobCheckpoint;
+import it.andrea.start.repository.job.JobCheckpointRepository;
+
+@Component
+public class ChunkJobSupport {
+
+    public static final String CHUNK_SIZE_KEY = "chunkSize";
+
+    private final JobCheckpointRepository jobCheckpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int defaultChunkSize;
+
+    public ChunkJobSupport(
+            JobCheckpointRepository jobCheckpointRepository, //
+            PlatformTransactionManager transactionManager, //
+            MeterRegistry meterRegistry, //
+            @Value("${app.job.chunk-size}") int defaultChunkSize) {
+
+        this.jobCheckpointRepository = jobCheckpointRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.defaultChunkSize = defaultChunkSize;
+    }
+
+    int chunkSize(JobDataMap jobDataMap) {
+        int chunkSize = jobDataMap.containsKey(CHUNK_SIZE_KEY) ? jobDataMap.getIntValue(CHUNK_SIZE_KEY) : 0;
+        return chunkSize > 0 ? chunkSize : defaultChunkSize;
+    }
+
+    <T> T inTransaction(Supplier<T> work) {
+        return transactionTemplate.execute(status -> work.get());
+    }
+
+    Optional<JobCheckpoint> loadCheckpoint(JobKey jobKey) {
+        return jobCheckpointRepository.findById(jobKey.toString());
+    }
+
+    // Called inside the chunk transaction so the checkpoint commits together with the written items
+    void saveCheckpoint(JobKey jobKey, String checkpoint, long processed) {
+        JobCheckpoint jobCheckpoint = jobCheckpointRepository.findById(jobKey.toString()).orElseGet(JobCheckpoint::new);
+        jobCheckpoint.setJobKey(jobKey.toString());
+        jobCheckpoint.setCheckpoint(checkpoint);
+        jobCheckpoint.setProcessed(processed);
+        jobCheckpoint.setUpdatedAt(Instant.now());
+        jobCheckpointRepository.save(jobCheckpoint);
+    }
+
+    void clearCheckpoint(JobKey jobKey) {
+        inTransaction(() -> {
+            jobCheckpointRepository.deleteById(jobKey.toString());
+            return null;
+        });
+    }
+
+    void recordChunk(JobKey jobKey, int items, long nanos) {
+        Timer.builder("quartz.job.chunk").tag("job", jobKey.toString()).register(meterRegistry).record(nanos, TimeUnit.NANOSECONDS);
+        Counter.builder("quartz.job.chunk.items").tag("job", jobKey.toString()).register(meterRegistry).increment(items);
+    }
+
+}
@@ -0,0 +1,43 @@
+package it.andrea.start.job.scheduler;
+
+import java.time.Instant;
+
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.quartz.listeners.JobListenerSupport;
+import org.springframework.stereotype.Component;
+
+import it.andrea.start.models.job.JobExecution;
+import it.andrea.start.service.job.JobExecutionRecorder;
+
+@Component
+public class JobExecutionHistoryListener extends JobListenerSupport {
+
+    private final JobExecutionRecorder jobExecutionRecorder;
+
+    public JobExecutionHistoryListener(JobExecutionRecorder jobExecutionRecorder) {
+        this.jobExecutionRecorder = jobExecutionRecorder;
+    }
+
+    @Override
+    public String getName() {
+        return "jobExecutionHistory";
+    }
+
+    @Override
+    public void jobWasExecuted(JobExecutionContext context, JobExecutionException jobException) {
+        JobExecution execution = new JobExecution();
+        execution.setJobName(context.getJobDetail().getKey().getName());
+        execution.setJobGroup(context.getJobDetail().getKey().getGroup());
+        execution.setFiredAt(context.getFireTime() != null ? context.getFireTime().toInstant() : Instant.now());
+        execution.setDurationMs(Math.max(context.getJobRunTime(), 0));
+        execution.setSuccess(jobException == null);
+        if (jobException != null) {
+            Throwable cause = jobException.getCause() != null ? jobException.getCause() : jobException;
+            execution.setErrorType(cause.getClass().getName());
+        }
+
+        jobExecutionRecorder.record(execution);
+    }
+
+}
@@ -0,0 +1,204 @@
+package it.andrea.start.job.scheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.quartz.JobListener;
+import org.quartz.SchedulerException;
+import org.quartz.SimpleScheduleBuilder;
+import org.quartz.Trigger;
+import org.quartz.Trigger.CompletedExecutionInstruction;
+import org.quartz.TriggerBuilder;
+import org.quartz.TriggerKey;
+import org.quartz.listeners.TriggerListenerSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Limits are enforced per scheduler node: in a cluster each node admits up to maxConcurrent jobs of the group.
+// A fire above the limit is not lost: it is vetoed and requeued as a one-shot trigger after a short delay.
+@Component
+public class JobGroupConcurrencyListener extends TriggerListenerSupport implements JobListener {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JobGroupConcurrencyListener.class);
+
+    public static final String RETRY_SEPARATOR = "#retry-";
+
+    private final MeterRegistry meterRegistry;
+    private final Duration retryDelay;
+    private final Map<String, AtomicInteger> running = new ConcurrentHashMap<>();
+    private final Map<String, Permit> permits = new ConcurrentHashMap<>();
+
+    private volatile Map<String, Integer> limits = Map.of();
+
+    public JobGroupConcurrencyListener(
+            MeterRegistry meterRegistry, //
+            @Value("${app.quartz.group-limits.retry-delay-millis}") long retryDelayMillis) {
+
+        this.meterRegistry = meterRegistry;
+        this.retryDelay = Duration.ofMillis(retryDelayMillis);
+    }
+
+    @Override
+    public String getName() {
+        return "jobGroupConcurrency";
+    }
+
+    @Override
+    public boolean vetoJobExecution(Trigger trigger, JobExecutionContext context) {
+        String group = trigger.getJobKey().getGroup();
+        Integer limit = limits.get(group);
+        AtomicInteger counter = running.computeIfAbsent(group, key -> new AtomicInteger());
+        if (limit == null) {
+            acquire(context, group, counter);
+            return false;
+        }
+
+        int current;
+        do {
+            current = counter.get();
+            if (current >= limit) {
+                if (!requeue(trigger, context)) {
+                    // Running above the limit is better than losing the fire
+                    acquire(context, group, counter);
+                    return false;
+                }
+                Counter.builder("quartz.jobs.vetoed").tag("group", group).register(meterRegistry).increment();
+                LOG.info("Esecuzione di {} rinviata di {} ms: il gruppo {} ha già {} job in esecuzione (limite {})", trigger.getJobKey(), retryDelay.toMillis(), group, current, limit);
+                return true;
+            }
+        } while (!counter.compareAndSet(current, current + 1));
+
+        grant(context, group);
+        return false;
+    }
+
+    @Override
+    public void triggerComplete(Trigger trigger, JobExecutionContext context, CompletedExecutionInstruction triggerInstructionCode) {
+        release(context.getFireInstanceId());
+    }
+
+    // Another listener vetoed after this one granted a permit: triggerComplete will not be called
+    @Override
+    public void jobExecutionVetoed(JobExecutionContext context) {
+        release(context.getFireInstanceId());
+    }
+
+    @Override
+    public void jobToBeExecuted(JobExecutionContext context) {
+        // Permits are taken when the trigger fires
+    }
+
+    @Override
+    public void jobWasExecuted(JobExecutionContext context, JobExecutionException jobException) {
+        // Released by triggerComplete, which follows
+    }
+
+    // A job listener throwing in jobToBeExecuted aborts the fire with no further callback:
+    // permits older than maxAge whose fire is not executing are returned
+    public int releaseAbandonedPermits(Set<String> executingFireInstanceIds, Duration maxAge) {
+        long threshold = System.nanoTime() - maxAge.toNanos();
+        int released = 0;
+        for (Map.Entry<String, Permit> entry : permits.entrySet()) {
+            if (entry.getValue().acquiredAt() - threshold < 0 && !executingFireInstanceIds.contains(entry.getKey()) && release(entry.getKey())) {
+                released++;
+            }
+        }
+        if (released > 0) {
+            LOG.warn("Rilasciati {} permessi di concorrenza di esecuzioni non più attive", released);
+        }
+        return released;
+    }
+
+    public void setLimits(Map<String, Integer> groupLimits) {
+        limits = Map.copyOf(groupLimits);
+    }
+
+    public synchronized void setLimit(String group, Integer maxConcurrent) {
+        Map<String, Integer> updated = new HashMap<>(limits);
+        if (maxConcurrent == null) {
+            updated.remove(group);
+        } else {
+            updated.put(group, maxConcurrent);
+        }
+        limits = Map.copyOf(updated);
+    }
+
+    public int getRunning(String group) {
+        AtomicInteger counter = running.get(group);
+        return counter != null ? counter.get() : 0;
+    }
+
+    private void acquire(JobExecutionContext context, String group, AtomicInteger counter) {
+        counter.incrementAndGet();
+        grant(context, group);
+    }
+
+    private void grant(JobExecutionContext context, String group) {
+        permits.put(context.getFireInstanceId(), new Permit(group, System.nanoTime()));
+    }
+
+    private boolean release(String fireInstanceId) {
+        Permit permit = fireInstanceId != null ? permits.remove(fireInstanceId) : null;
+        if (permit == null) {
+            return false;
+        }
+        running.get(permit.group()).decrementAndGet();
+        return true;
+    }
+
+    private boolean requeue(Trigger trigger, JobExecutionContext context) {
+        // A recurring trigger needs a single pending retry: later fires are covered by it or by the schedule
+        String baseName = baseName(trigger.getKey());
+        try {
+            if (trigger.mayFireAgain() && hasPendingRetry(context, trigger, baseName)) {
+                return true;
+            }
+
+            // @formatter:off
+            Trigger retry = TriggerBuilder.newTrigger()
+                    .withIdentity(baseName + RETRY_SEPARATOR + UUID.randomUUID(), trigger.getKey().getGroup())
+                    .withDescription("Rinvio per limite di concorrenza di " + trigger.getKey())
+                    .forJob(trigger.getJobKey())
+                    .usingJobData(trigger.getJobDataMap())
+                    .withPriority(trigger.getPriority())
+                    .startAt(Date.from(Instant.now().plus(retryDelay)))
+                    .withSchedule(SimpleScheduleBuilder.simpleSchedule().withMisfireHandlingInstructionFireNow())
+                    .build();
+            // @formatter:on
+            context.getScheduler().scheduleJob(retry);
+            return true;
+        } catch (SchedulerException e) {
+            LOG.error("Impossibile rinviare {}, eseguito oltre il limite del gruppo: {}", trigger.getKey(), e.getMessage(), e);
+            return false;
+        }
+    }
+
+    private static boolean hasPendingRetry(JobExecutionContext context, Trigger trigger, String baseName) throws SchedulerException {
+        String prefix = baseName + RETRY_SEPARATOR;
+        return context.getScheduler().getTriggersOfJob(trigger.getJobKey()).stream().anyMatch(candidate -> candidate.getKey().getName().startsWith(prefix));
+    }
+
+    private static String baseName(TriggerKey triggerKey) {
+        String name = triggerKey.getName();
+        int separator = name.indexOf(RETRY_SEPARATOR);
+        return separator < 0 ? name : name.substring(0, separator);
+    }
+
+    private record Permit(String group, long acquiredAt) {
+    }
+
+}
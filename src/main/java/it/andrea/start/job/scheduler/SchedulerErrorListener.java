@@ -0,0 +1,31 @@
+package it.andrea.start.job.scheduler;
+
+import org.quartz.SchedulerException;
+import org.quartz.listeners.SchedulerListenerSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Component
+public class SchedulerErrorListener extends SchedulerListenerSupport {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SchedulerErrorListener.class);
+
+    private final MeterRegistry meterRegistry;
+
+    public SchedulerErrorListener(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    // Job store failures (lost connections, lock timeouts while acquiring triggers) surface here
+    @Override
+    public void schedulerError(String msg, SchedulerException cause) {
+        Throwable root = cause.getUnderlyingException() != null ? cause.getUnderlyingException() : cause;
+        Counter.builder("quartz.scheduler.errors").tag("exception", root.getClass().getSimpleName()).register(meterRegistry).increment();
+        LOG.error("Errore dello scheduler: {}", msg, cause);
+    }
+
+}
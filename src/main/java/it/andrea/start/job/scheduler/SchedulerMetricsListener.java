@@ -0,0 +1,72 @@
+package it.andrea.start.job.scheduler;
+
+import java.time.Duration;
+
+import org.quartz.JobExecutionContext;
+import org.quartz.Trigger;
+import org.quartz.listeners.TriggerListenerSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+@Component
+public class SchedulerMetricsListener extends TriggerListenerSupport {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SchedulerMetricsListener.class);
+
+    private final MeterRegistry meterRegistry;
+
+    public SchedulerMetricsListener(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public String getName() {
+        return "schedulerMetrics";
+    }
+
+    // Runs on the worker thread: fireTime is stamped by the job store when the trigger is acquired and fired
+    @Override
+    public void triggerFired(Trigger trigger, JobExecutionContext context) {
+        if (context.getScheduledFireTime() == null) {
+            return;
+        }
+
+        String group = trigger.getJobKey().getGroup();
+        long scheduled = context.getScheduledFireTime().getTime();
+        long fired = context.getFireTime().getTime();
+        long started = System.currentTimeMillis();
+
+        delayTimer("quartz.trigger.acquisition.delay", "Delay between the scheduled fire time and the job store firing the trigger", group).record(Duration.ofMillis(Math.max(fired - scheduled, 0)));
+        delayTimer("quartz.trigger.fire.delay", "Delay between the scheduled fire time and the job starting on a worker", group).record(Duration.ofMillis(Math.max(started - scheduled, 0)));
+    }
+
+    // Tagged by job, not trigger: shard and retry triggers get a new key on every run
+    @Override
+    public void triggerMisfired(Trigger trigger) {
+        // @formatter:off
+        Counter.builder("quartz.trigger.misfires")
+            .description("Triggers that missed their fire time and were handled by the misfire policy")
+            .tag("group", trigger.getJobKey().getGroup())
+            .tag("job", trigger.getJobKey().getName())
+            .register(meterRegistry)
+            .increment();
+        // @formatter:on
+        LOG.warn("Misfire del trigger {} (job {}), prossima esecuzione: {}", trigger.getKey(), trigger.getJobKey(), trigger.getNextFireTime());
+    }
+
+    private Timer delayTimer(String name, String description, String group) {
+        // @formatter:off
+        return Timer.builder(name)
+            .description(description)
+            .tag("group", group)
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(meterRegistry);
+        // @formatter:on
+    }
+
+}
@@ -0,0 +1,160 @@
+package it.andrea.start.job.scheduler;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.quartz.SchedulerConfigException;
+import org.quartz.spi.ThreadPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class VirtualThreadPool implements ThreadPool {
+
+    private static final Logger LOG = LoggerFactory.getLogger(VirtualThreadPool.class);
+
+    // Quartz instantiates the pool by reflection: metrics find it through the scheduler name
+    private static final Map<String, VirtualThreadPool> POOLS = new ConcurrentHashMap<>();
+
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger blocked = new AtomicInteger();
+    private final Object availability = new Object();
+
+    private int threadCount = 10;
+    private String threadNamePrefix;
+    private String schedulerName;
+    private Semaphore permits;
+    private ThreadFactory threadFactory;
+    private volatile boolean shutdown;
+
+    public static Optional<VirtualThreadPool> forScheduler(String schedulerName) {
+        return Optional.ofNullable(POOLS.get(schedulerName));
+    }
+
+    @Override
+    public void initialize() throws SchedulerConfigException {
+        if (threadCount <= 0) {
+            throw new SchedulerConfigException("Thread count must be > 0");
+        }
+
+        String prefix = threadNamePrefix != null ? threadNamePrefix : schedulerName + "_Worker-";
+        permits = new Semaphore(threadCount, true);
+        threadFactory = Thread.ofVirtual().name(prefix, 1).factory();
+        if (schedulerName != null) {
+            POOLS.put(schedulerName, this);
+        }
+        LOG.info("Quartz thread pool su virtual thread, massimo {} job concorrenti", threadCount);
+    }
+
+    @Override
+    public boolean runInThread(Runnable runnable) {
+        if (runnable == null || shutdown) {
+            return false;
+        }
+
+        // Quartz calls blockForAvailableThreads first, so a permit is normally free here
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+
+        running.incrementAndGet();
+        threadFactory.newThread(() -> {
+            try {
+                runnable.run();
+            } finally {
+                running.decrementAndGet();
+                permits.release();
+                synchronized (availability) {
+                    availability.notifyAll();
+                }
+            }
+        }).start();
+        return true;
+    }
+
+    @Override
+    public int blockForAvailableThreads() {
+        synchronized (availability) {
+            // The scheduler thread parks here while every permit is taken: due triggers wait behind it
+            if (permits.availablePermits() < 1 && !shutdown) {
+                blocked.incrementAndGet();
+                try {
+                    while (permits.availablePermits() < 1 && !shutdown) {
+                        availability.wait(500);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    blocked.decrementAndGet();
+                }
+            }
+            return permits.availablePermits();
+        }
+    }
+
+    @Override
+    public void shutdown(boolean waitForJobsToComplete) {
+        shutdown = true;
+        synchronized (availability) {
+            availability.notifyAll();
+        }
+
+        if (permits == null) {
+            return;
+        }
+
+        if (waitForJobsToComplete) {
+            LOG.info("Attesa del completamento di {} job in esecuzione", running.get());
+            permits.acquireUninterruptibly(threadCount);
+            permits.release(threadCount);
+        }
+        if (schedulerName != null) {
+            POOLS.remove(schedulerName, this);
+        }
+    }
+
+    @Override
+    public int getPoolSize() {
+        return threadCount;
+    }
+
+    @Override
+    public void setInstanceId(String schedInstId) {
+        // Not used: threads are named after the scheduler
+    }
+
+    @Override
+    public void setInstanceName(String schedName) {
+        this.schedulerName = schedName;
+    }
+
+    public int getRunningCount() {
+        return running.get();
+    }
+
+    public int getWaitingCount() {
+        Semaphore current = permits;
+        return blocked.get() + (current != null ? current.getQueueLength() : 0);
+    }
+
+    // Property setters invoked by StdSchedulerFactory from org.quartz.threadPool.*
+
+    public void setThreadCount(int threadCount) {
+        this.threadCount = threadCount;
+    }
+
+    public void setThreadPriority(int threadPriority) {
+        // Virtual threads always run at normal priority
+    }
+
+    public void setThreadNamePrefix(String threadNamePrefix) {
+        this.threadNamePrefix = threadNamePrefix;
+    }
+
+}
@@ -0,0 +1,33 @@
+package it.andrea.start.job.shard;
+
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.quartz.listeners.JobListenerSupport;
+import org.springframework.stereotype.Component;
+
+import it.andrea.start.service.job.JobExecutionService;
+
+@Component
+public class ShardCompletionListener extends JobListenerSupport {
+
+    private final JobExecutionService jobExecutionService;
+
+    public ShardCompletionListener(JobExecutionService jobExecutionService) {
+        this.jobExecutionService = jobExecutionService;
+    }
+
+    @Override
+    public String getName() {
+        return "shardCompletion";
+    }
+
+    // Vetoed shards are requeued by the group concurrency limit and report here once they run
+    @Override
+    public void jobWasExecuted(JobExecutionContext context, JobExecutionException jobException) {
+        String runId = context.getTrigger().getJobDataMap().getString(ShardFanOutJob.SHARD_RUN_KEY);
+        if (runId != null) {
+            jobExecutionService.recordShardResults(runId, jobException == null ? 1 : 0, jobException == null ? 0 : 1);
+        }
+    }
+
+}
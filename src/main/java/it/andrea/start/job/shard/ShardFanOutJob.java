@@ -0,0 +1,79 @@
+package it.andrea.start.job.shard;
+
+import java.util.UUID;
+
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.quartz.JobKey;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.Trigger;
+import org.quartz.TriggerBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.quartz.QuartzJobBean;
+import org.springframework.stereotype.Component;
+
+import it.andrea.start.service.job.JobExecutionService;
+
+// Scheduled in place of a sharded job: each fire starts one shard run and a one-shot trigger per shard worker.
+// With a clustered job store the shard triggers are acquired by whichever node has a free thread.
+@Component
+@DisallowConcurrentExecution
+public class ShardFanOutJob extends QuartzJobBean {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ShardFanOutJob.class);
+
+    public static final String SHARD_INDEX_KEY = "shardIndex";
+    public static final String SHARD_COUNT_KEY = "shardCount";
+    public static final String SHARD_RUN_KEY = "shardRunId";
+
+    private static final String SHARD_SEPARATOR = "#shard-";
+
+    private final JobExecutionService jobExecutionService;
+
+    public ShardFanOutJob(JobExecutionService jobExecutionService) {
+        this.jobExecutionService = jobExecutionService;
+    }
+
+    public static JobKey workerKey(JobKey jobKey, int shardIndex) {
+        return JobKey.jobKey(jobKey.getName() + SHARD_SEPARATOR + shardIndex, jobKey.getGroup());
+    }
+
+    public static boolean isWorkerOf(JobKey jobKey, JobKey candidate) {
+        return candidate.getGroup().equals(jobKey.getGroup()) && candidate.getName().startsWith(jobKey.getName() + SHARD_SEPARATOR);
+    }
+
+    @Override
+    protected void executeInternal(@NonNull JobExecutionContext context) throws JobExecutionException {
+        JobKey jobKey = context.getJobDetail().getKey();
+        int shardCount = context.getMergedJobDataMap().getIntValue(SHARD_COUNT_KEY);
+        String runId = UUID.randomUUID().toString();
+        jobExecutionService.startShardRun(runId, jobKey.getName(), jobKey.getGroup(), shardCount);
+
+        Scheduler scheduler = context.getScheduler();
+        for (int shardIndex = 0; shardIndex < shardCount; shardIndex++) {
+            // @formatter:off
+            Trigger trigger = TriggerBuilder.newTrigger()
+                    .withIdentity(runId + SHARD_SEPARATOR + shardIndex, jobKey.getGroup())
+                    .forJob(workerKey(jobKey, shardIndex))
+                    .usingJobData(SHARD_RUN_KEY, runId)
+                    .withPriority(context.getTrigger().getPriority())
+                    .startNow()
+                    .build();
+            // @formatter:on
+            try {
+                scheduler.scheduleJob(trigger);
+            } catch (SchedulerException e) {
+                // Shards that never start are counted as failed so the run still reaches a final status
+                jobExecutionService.recordShardResults(runId, 0, shardCount - shardIndex);
+                LOG.error("Errore durante l'avvio dello shard {}/{} del job {}: {}", shardIndex, shardCount, jobKey, e.getMessage(), e);
+                throw new JobExecutionException(e);
+            }
+        }
+        LOG.info("Job {} suddiviso in {} shard (run {})", jobKey, shardCount, runId);
+    }
+
+}
@@ -0,0 +1,27 @@
+package it.andrea.start.job.shard;
+
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.JobExecutionContext;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.quartz.QuartzJobBean;
+import org.springframework.stereotype.Component;
+
+import it.andrea.start.service.job.JobExecutionService;
+
+// Registered as a JobInfo (e.g. every 5 minutes): closes shard runs whose workers never reported back
+@Component
+@DisallowConcurrentExecution
+public class ShardRunTimeoutJob extends QuartzJobBean {
+
+    private final JobExecutionService jobExecutionService;
+
+    public ShardRunTimeoutJob(JobExecutionService jobExecutionService) {
+        this.jobExecutionService = jobExecutionService;
+    }
+
+    @Override
+    protected void executeInternal(@NonNull JobExecutionContext context) {
+        jobExecutionService.failStaleShardRuns();
+    }
+
+}
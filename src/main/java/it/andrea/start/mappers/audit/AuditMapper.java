@@ -46,6 +46,7 @@ public class AuditMapper extends AbstractMapper<AuditTraceDTO, AuditTrace> {
 
         dto.setExceptionType(entity.getExceptionType());
         dto.setExceptionMessage(entity.getExceptionMessage());
+        dto.setResultSummary(entity.getResultSummary());
 
         return dto;
     }
@@ -77,5 +78,6 @@ public class AuditMapper extends AbstractMapper<AuditTraceDTO, AuditTrace> {
 
         entity.setExceptionType(dto.getExceptionType());
         entity.setExceptionMessage(dto.getExceptionMessage());
+        entity.setResultSummary(dto.getResultSummary());
     }
 }
\ No newline at end of file
@@ -0,0 +1,41 @@
+package it.andrea.start.mappers.job;
+
+import org.springframework.stereotype.Component;
+
+import it.andrea.start.dto.job.JobExecutionDTO;
+import it.andrea.start.error.exception.mapping.MappingToEntityException;
+import it.andrea.start.mappers.AbstractMapper;
+import it.andrea.start.models.job.JobExecution;
+import jakarta.persistence.EntityManager;
+
+@Component
+public class JobExecutionMapper extends AbstractMapper<JobExecutionDTO, JobExecution> {
+
+    public JobExecutionMapper(EntityManager entityManager) {
+        super(entityManager);
+    }
+
+    @Override
+    public JobExecutionDTO toDto(JobExecution entity) {
+        if (entity == null) {
+            return null;
+        }
+
+        // @formatter:off
+        return new JobExecutionDTO(
+                entity.getJobName(),
+                entity.getJobGroup(),
+                entity.getFiredAt(),
+                entity.getDurationMs(),
+                entity.isSuccess(),
+                entity.getErrorType());
+        // @formatter:on
+    }
+
+    @Override
+    public void toEntity(JobExecutionDTO dto, JobExecution entity) {
+        // The history is append-only and written by the scheduler listener
+        throw new MappingToEntityException("Lo storico delle esecuzioni non è modificabile.");
+    }
+
+}
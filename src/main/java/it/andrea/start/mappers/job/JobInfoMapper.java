@@ -39,6 +39,8 @@ public class JobInfoMapper extends AbstractMapper<JobInfoDTO, JobInfo> {
         dto.setRepeatIntervalMillis(entity.getRepeatIntervalMillis());
         dto.setInitialDelayMillis(entity.getInitialDelayMillis());
         dto.setRepeatCount(entity.getRepeatCount());
+        dto.setPriority(entity.getPriority());
+        dto.setShardCount(entity.getShardCount());
 
         dto.setJobDataMapJson(entity.getJobDataMapJson());
 
@@ -72,6 +74,8 @@ public class JobInfoMapper extends AbstractMapper<JobInfoDTO, JobInfo> {
             LOG.debug("RepeatCount nullo nel DTO, impostato valore di default REPEAT_INDEFINITELY (-1) nell'entità.");
         }
 
+        entity.setPriority(dto.getPriority());
+        entity.setShardCount(dto.getShardCount());
         entity.setJobDataMapJson(dto.getJobDataMapJson());
     }
 
@@ -1,8 +1,10 @@
 package it.andrea.start.mappers.user;
 
 import java.util.Collections;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Component;
@@ -12,21 +14,20 @@ import it.andrea.start.constants.Language;
 import it.andrea.start.constants.RoleType;
 import it.andrea.start.dto.user.UserDTO;
 import it.andrea.start.error.exception.mapping.MappingToDtoException;
-import it.andrea.start.error.exception.user.UserRoleNotFoundException;
 import it.andrea.start.mappers.AbstractMapper;
 import it.andrea.start.models.user.User;
 import it.andrea.start.models.user.UserRole;
-import it.andrea.start.repository.user.UserRoleRepository;
+import it.andrea.start.repository.user.UserRoleRegistry;
 import jakarta.persistence.EntityManager;
 
 @Component
 public class UserMapper extends AbstractMapper<UserDTO, User> {
 
-    private final UserRoleRepository userRoleRepository;
+    private final UserRoleRegistry userRoleRegistry;
 
-    public UserMapper(final EntityManager entityManager, final UserRoleRepository userRoleRepository) {
+    public UserMapper(final EntityManager entityManager, final UserRoleRegistry userRoleRegistry) {
         super(entityManager);
-        this.userRoleRepository = userRoleRepository;
+        this.userRoleRegistry = userRoleRegistry;
     }
 
     @Override
@@ -38,6 +39,7 @@ public class UserMapper extends AbstractMapper<UserDTO, User> {
         dto.setEmail(entity.getEmail());
         dto.setUserStatus(entity.getUserStatus());
         dto.setLanguage(entity.getLanguageDefault().getBcp47Tag());
+        dto.setVersion(entity.getVersion());
         
         Set<UserRole> rolesEntity = entity.getRoles();
         if (CollectionUtils.isEmpty(rolesEntity)) {
@@ -72,11 +74,15 @@ public class UserMapper extends AbstractMapper<UserDTO, User> {
         entity.setUserStatus(dto.getUserStatus());
         entity.setLanguageDefault(Language.fromTag(dto.getLanguage()).orElse(Language.getDefault()));
 
+        // Roles already attached to the entity are managed in the current session: keep those instances
         // @formatter:off
+        Map<RoleType, UserRole> currentRoles = entity.getRoles()
+                .stream()
+                .collect(Collectors.toMap(UserRole::getRole, Function.identity(), (first, second) -> first));
+
         Set<UserRole> userRoles = dto.getRoles()
                 .stream()
-                .map(roleType -> userRoleRepository.findByRole(roleType)
-                        .orElseThrow(() -> new UserRoleNotFoundException(roleType)))
+                .map(roleType -> currentRoles.containsKey(roleType) ? currentRoles.get(roleType) : userRoleRegistry.get(roleType))
                 .collect(Collectors.toSet());
         // @formatter:on
         
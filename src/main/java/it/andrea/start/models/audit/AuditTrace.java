@@ -93,4 +93,8 @@ public class AuditTrace {
     @Column(columnDefinition = "TEXT")
     private String exceptionMessage;
 
+    @Lob
+    @Column(columnDefinition = "TEXT")
+    private String resultSummary;
+
 }
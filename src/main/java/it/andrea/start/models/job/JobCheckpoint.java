@@ -0,0 +1,31 @@
+package it.andrea.start.models.job;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+@Setter
+@Getter
+@Entity
+@Table(name = "job_checkpoint")
+public class JobCheckpoint {
+
+    @Id
+    @Column
+    private String jobKey;
+
+    @Column
+    private String checkpoint;
+
+    @Column(nullable = false)
+    private long processed;
+
+    @Column(nullable = false)
+    private Instant updatedAt;
+
+}
@@ -0,0 +1,53 @@
+package it.andrea.start.models.job;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+@Setter
+@Getter
+@Entity
+// @formatter:off
+@Table(
+        name = "job_execution",
+        indexes = {
+                // Recent runs of one job: range scan already in firedAt order, no sort
+                @Index(name = "IDX_JOB_EXECUTION_JOB", columnList = "jobGroup, jobName, firedAt, durationMs"),
+                // Covers every column read by findStatsSince, so the stats over a window are an index-only scan
+                @Index(name = "IDX_JOB_EXECUTION_STATS", columnList = "firedAt, jobGroup, jobName, durationMs, success")
+                }
+        )
+// @formatter:on
+public class JobExecution {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String jobName;
+
+    @Column(nullable = false)
+    private String jobGroup;
+
+    @Column(nullable = false)
+    private Instant firedAt;
+
+    @Column(nullable = false)
+    private long durationMs;
+
+    @Column(nullable = false)
+    private boolean success;
+
+    @Column
+    private String errorType;
+
+}
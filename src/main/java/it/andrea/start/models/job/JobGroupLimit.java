@@ -0,0 +1,23 @@
+package it.andrea.start.models.job;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+@Setter
+@Getter
+@Entity
+@Table(name = "job_group_limit")
+public class JobGroupLimit {
+
+    @Id
+    @Column
+    private String jobGroup;
+
+    @Column(nullable = false)
+    private int maxConcurrent;
+
+}
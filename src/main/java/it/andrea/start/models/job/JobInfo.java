@@ -38,6 +38,12 @@ public class JobInfo {
     @Column
     private Integer repeatCount;
 
+    @Column
+    private Integer priority;
+
+    @Column
+    private Integer shardCount;
+
     @Column
     private boolean cronJob;
 
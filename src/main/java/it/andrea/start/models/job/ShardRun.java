@@ -0,0 +1,51 @@
+package it.andrea.start.models.job;
+
+import java.time.Instant;
+
+import it.andrea.start.constants.ShardRunStatus;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+@Setter
+@Getter
+@Entity
+@Table(name = "shard_run", indexes = { @Index(name = "IDX_SHARD_RUN_JOB", columnList = "jobGroup, jobName, startedAt") })
+public class ShardRun {
+
+    @Id
+    @Column
+    private String id;
+
+    @Column(nullable = false)
+    private String jobName;
+
+    @Column(nullable = false)
+    private String jobGroup;
+
+    @Column(nullable = false)
+    private int shardCount;
+
+    @Column(nullable = false)
+    private int completed;
+
+    @Column(nullable = false)
+    private int failed;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private ShardRunStatus status;
+
+    @Column(nullable = false)
+    private Instant startedAt;
+
+    @Column
+    private Instant finishedAt;
+
+}
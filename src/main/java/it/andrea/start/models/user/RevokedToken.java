@@ -0,0 +1,36 @@
+package it.andrea.start.models.user;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+@Data
+@Entity
+@Table(
+        name = "revoked_token", 
+        indexes = { 
+                @Index(name = "IDX_REVOKED_TOKEN_REVOKED_AT", columnList = "revokedAt"), 
+                @Index(name = "IDX_REVOKED_TOKEN_EXPIRES_AT", columnList = "expiresAt"), 
+                }
+        )
+public class RevokedToken {
+
+    @Id
+    @Column(length = 36)
+    private String tokenId;
+
+    @Column(nullable = false)
+    private String username;
+
+    @Column(nullable = false)
+    private Instant revokedAt;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+
+}
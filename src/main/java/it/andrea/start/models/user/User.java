@@ -1,18 +1,24 @@
 package it.andrea.start.models.user;
 
 import java.io.Serial;
+import java.time.Instant;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import it.andrea.start.configuration.HibernateCacheConfig;
 import it.andrea.start.constants.Language;
 import it.andrea.start.constants.UserStatus;
 import it.andrea.start.models.BaseEntity;
+import it.andrea.start.utils.HelperAuthorization;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
@@ -27,19 +33,25 @@ import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import jakarta.validation.constraints.Email;
 import lombok.Getter;
 import lombok.Setter;
 
 @Setter
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.USER_REGION)
+@NaturalIdCache(region = HibernateCacheConfig.USER_NATURAL_ID_REGION)
 // @formatter:off
 @Table(
         name = "users", 
+        uniqueConstraints = {
+                @UniqueConstraint(name = User.UK_USERNAME, columnNames = "username"),
+                @UniqueConstraint(name = User.UK_EMAIL, columnNames = "email")
+                },
         indexes = { 
-                @Index(name = "IDX_USER_USERNAME", columnList = "username"), 
-                @Index(name = "IDX_USER_EMAIL", columnList = "email"), 
-                @Index(name = "IDX_USER_STATUS", columnList = "username, userStatus") 
+                @Index(name = "IDX_USER_STATUS", columnList = "username, userStatus"), 
+                @Index(name = "IDX_USER_TOKENS_REVOKED_AT", columnList = "tokensRevokedAt") 
                 }
         )
 // @formatter:
@@ -48,12 +60,16 @@ public class User extends BaseEntity implements UserDetails {
     @Serial
     private static final long serialVersionUID = 8219540355116099903L;
 
+    public static final String UK_USERNAME = "UK_USER_USERNAME";
+    public static final String UK_EMAIL = "UK_USER_EMAIL";
+
     @Getter
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "USER_SEQ")
     @SequenceGenerator(name = "USER_SEQ", sequenceName = "USER_SEQUENCE", allocationSize = 1)
     private Long id;
 
+    @NaturalId
     @Column(nullable = false, updatable = false)
     private String username;
 
@@ -79,8 +95,13 @@ public class User extends BaseEntity implements UserDetails {
     @Column(nullable = false)
     private Language languageDefault;
 
+    @Getter
+    @Column
+    private Instant tokensRevokedAt;
+
     @Getter
     @ManyToMany(fetch = FetchType.EAGER)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.USER_ROLES_REGION)
     // @formatter:off
     @JoinTable(
         name = "user_roles",
@@ -92,11 +113,11 @@ public class User extends BaseEntity implements UserDetails {
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        // @formatter:off
-        return this.roles.stream()
-                .map(role -> new SimpleGrantedAuthority(role.getRole().name()))
-                .toList();
-        // @formatter:on
+        return HelperAuthorization.authorities(getRoleMask());
+    }
+
+    public long getRoleMask() {
+        return HelperAuthorization.roleMask(this.roles);
     }
 
     @Override
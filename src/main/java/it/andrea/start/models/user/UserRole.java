@@ -3,8 +3,11 @@ package it.andrea.start.models.user;
 import java.io.Serial;
 import java.util.Objects;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.security.core.GrantedAuthority;
 
+import it.andrea.start.configuration.HibernateCacheConfig;
 import it.andrea.start.constants.RoleType;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
@@ -19,6 +22,7 @@ import lombok.Getter;
 
 @Getter
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.USER_ROLE_REGION)
 @Table(
         name = "user_role", 
         indexes = { 
@@ -1,8 +1,11 @@
 package it.andrea.start.repository.audit;
 
 import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
@@ -24,4 +27,12 @@ public interface AuditTraceRepository extends JpaRepository<AuditTrace, Long>, J
     @Query("DELETE FROM AuditTrace at WHERE at.dateEvent < :instant")
     public int deleteRows(@Param("instant") Instant instant);
 
+    @Query("SELECT at.id FROM AuditTrace at WHERE at.dateEvent < :instant AND at.id > :afterId ORDER BY at.id")
+    public List<Long> findIdsBefore(@Param("instant") Instant instant, @Param("afterId") long afterId, Limit limit);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM AuditTrace at WHERE at.id IN :ids")
+    public int deleteRowsByIds(@Param("ids") Collection<Long> ids);
+
 }
@@ -0,0 +1,9 @@
+package it.andrea.start.repository.job;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import it.andrea.start.models.job.JobCheckpoint;
+
+public interface JobCheckpointRepository extends JpaRepository<JobCheckpoint, String> {
+
+}
@@ -0,0 +1,33 @@
+package it.andrea.start.repository.job;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import it.andrea.start.models.job.JobExecution;
+
+@Repository
+public class JobExecutionBatchRepository {
+
+    private static final String INSERT_EXECUTION = "INSERT INTO job_execution (job_name, job_group, fired_at, duration_ms, success, error_type) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JobExecutionBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void insertAll(List<JobExecution> executions) {
+        jdbcTemplate.batchUpdate(INSERT_EXECUTION, executions, executions.size(), (ps, execution) -> {
+            ps.setString(1, execution.getJobName());
+            ps.setString(2, execution.getJobGroup());
+            ps.setTimestamp(3, Timestamp.from(execution.getFiredAt()));
+            ps.setLong(4, execution.getDurationMs());
+            ps.setBoolean(5, execution.isSuccess());
+            ps.setString(6, execution.getErrorType());
+        });
+    }
+
+}
@@ -0,0 +1,38 @@
+package it.andrea.start.repository.job;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import it.andrea.start.models.job.JobExecution;
+
+public interface JobExecutionRepository extends JpaRepository<JobExecution, Long> {
+
+    List<JobExecution> findByJobGroupAndJobNameOrderByFiredAtDesc(String jobGroup, String jobName, Limit limit);
+
+    // Index-only range scan on IDX_JOB_EXECUTION_STATS, durations are sorted per job by the ordered-set aggregates
+    // @formatter:off
+    @Query(value = "SELECT je.job_group AS jobGroup, je.job_name AS jobName, COUNT(*) AS executions, "
+            + "SUM(CASE WHEN je.success THEN 0 ELSE 1 END) AS failures, "
+            + "percentile_cont(0.5) WITHIN GROUP (ORDER BY je.duration_ms) AS p50, "
+            + "percentile_cont(0.95) WITHIN GROUP (ORDER BY je.duration_ms) AS p95, "
+            + "MAX(je.duration_ms) AS maxMs "
+            + "FROM job_execution je "
+            + "WHERE je.fired_at >= :since "
+            + "GROUP BY je.job_group, je.job_name "
+            + "ORDER BY je.job_group, je.job_name", nativeQuery = true)
+    // @formatter:on
+    List<JobExecutionStats> findStatsSince(@Param("since") Instant since);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM JobExecution je WHERE je.firedAt < :instant")
+    int deleteRows(@Param("instant") Instant instant);
+
+}
@@ -0,0 +1,19 @@
+package it.andrea.start.repository.job;
+
+public interface JobExecutionStats {
+
+    String getJobGroup();
+
+    String getJobName();
+
+    Long getExecutions();
+
+    Long getFailures();
+
+    Double getP50();
+
+    Double getP95();
+
+    Long getMaxMs();
+
+}
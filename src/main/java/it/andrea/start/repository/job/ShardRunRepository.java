@@ -0,0 +1,66 @@
+package it.andrea.start.repository.job;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import it.andrea.start.constants.ShardRunStatus;
+import it.andrea.start.models.job.ShardRun;
+
+public interface ShardRunRepository extends JpaRepository<ShardRun, String> {
+
+    List<ShardRun> findByJobGroupAndJobNameOrderByStartedAtDesc(String jobGroup, String jobName, Limit limit);
+
+    // Shards finish on any node: counters are incremented in place under the row lock, never read-modify-write
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE ShardRun sr SET sr.completed = sr.completed + :completed, sr.failed = sr.failed + :failed WHERE sr.id = :id")
+    int incrementShards(@Param("id") String id, @Param("completed") int completed, @Param("failed") int failed);
+
+    // Only the shard that brings the counters to shardCount moves the run out of RUNNING
+    // @formatter:off
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE ShardRun sr SET sr.status = CASE WHEN sr.failed > 0 THEN :failedStatus ELSE :completedStatus END, sr.finishedAt = :finishedAt "
+            + "WHERE sr.id = :id AND sr.status = :runningStatus AND sr.completed + sr.failed >= sr.shardCount")
+    int finishIfComplete(
+            @Param("id") String id,
+            @Param("finishedAt") Instant finishedAt,
+            @Param("runningStatus") ShardRunStatus runningStatus,
+            @Param("completedStatus") ShardRunStatus completedStatus,
+            @Param("failedStatus") ShardRunStatus failedStatus);
+    // @formatter:on
+
+    // A node that dies mid-shard leaves the run RUNNING: runs past the timeout are closed as failed
+    // @formatter:off
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE ShardRun sr SET sr.status = :failedStatus, sr.finishedAt = :finishedAt WHERE sr.status = :runningStatus AND sr.startedAt < :startedBefore")
+    int failStale(
+            @Param("startedBefore") Instant startedBefore,
+            @Param("finishedAt") Instant finishedAt,
+            @Param("runningStatus") ShardRunStatus runningStatus,
+            @Param("failedStatus") ShardRunStatus failedStatus);
+    // @formatter:on
+
+    // Removing the shard workers also removes their pending triggers: open runs of the job can no longer complete
+    // @formatter:off
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE ShardRun sr SET sr.status = :failedStatus, sr.finishedAt = :finishedAt WHERE sr.jobGroup = :jobGroup AND sr.jobName = :jobName AND sr.status = :runningStatus")
+    int failRunning(
+            @Param("jobGroup") String jobGroup,
+            @Param("jobName") String jobName,
+            @Param("finishedAt") Instant finishedAt,
+            @Param("runningStatus") ShardRunStatus runningStatus,
+            @Param("failedStatus") ShardRunStatus failedStatus);
+    // @formatter:on
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ShardRun sr WHERE sr.startedAt < :instant")
+    int deleteRows(@Param("instant") Instant instant);
+
+}
@@ -0,0 +1,27 @@
+package it.andrea.start.repository.user;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import it.andrea.start.models.user.RevokedToken;
+
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+
+    @Query("SELECT rt FROM RevokedToken rt WHERE rt.expiresAt > :now")
+    public List<RevokedToken> findActive(@Param("now") Instant now);
+
+    @Query("SELECT rt FROM RevokedToken rt WHERE rt.revokedAt > :since AND rt.expiresAt > :now")
+    public List<RevokedToken> findRevokedSince(@Param("since") Instant since, @Param("now") Instant now);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RevokedToken rt WHERE rt.expiresAt <= :now")
+    public int deleteExpired(@Param("now") Instant now);
+
+}
@@ -0,0 +1,66 @@
+package it.andrea.start.repository.user;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import it.andrea.start.models.user.User;
+import it.andrea.start.models.user.UserRole;
+
+@Repository
+public class UserBatchRepository {
+
+    // A single round trip reserves the whole block of ids from USER_SEQUENCE
+    private static final String NEXT_IDS = "SELECT nextval('USER_SEQUENCE') FROM generate_series(1, ?)";
+
+    // @formatter:off
+    private static final String INSERT_USER = "INSERT INTO users "
+            + "(id, username, password, name, email, user_status, language_default, created_by, updated_by, created_at, updated_at, version) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+    // @formatter:on
+    private static final String INSERT_USER_ROLE = "INSERT INTO user_roles (user_id, role_id) VALUES (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public List<Long> nextIds(int count) {
+        if (count == 0) {
+            return List.of();
+        }
+        return jdbcTemplate.queryForList(NEXT_IDS, Long.class, count);
+    }
+
+    public void insertAll(List<User> users, int batchSize) {
+        jdbcTemplate.batchUpdate(INSERT_USER, users, batchSize, (ps, user) -> {
+            ps.setLong(1, user.getId());
+            ps.setString(2, user.getUsername());
+            ps.setString(3, user.getPassword());
+            ps.setString(4, user.getName());
+            ps.setString(5, user.getEmail());
+            ps.setString(6, user.getUserStatus().name());
+            ps.setInt(7, user.getLanguageDefault().ordinal());
+            ps.setString(8, user.getCreatedBy());
+            ps.setString(9, user.getUpdatedBy());
+            ps.setTimestamp(10, Timestamp.from(user.getCreatedAt()));
+            ps.setTimestamp(11, Timestamp.from(user.getUpdatedAt()));
+        });
+
+        List<long[]> userRoles = new ArrayList<>(users.size() * 2);
+        for (User user : users) {
+            for (UserRole role : user.getRoles()) {
+                userRoles.add(new long[] { user.getId(), role.getId() });
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_USER_ROLE, userRoles, batchSize, (ps, userRole) -> {
+            ps.setLong(1, userRole[0]);
+            ps.setLong(2, userRole[1]);
+        });
+    }
+
+}
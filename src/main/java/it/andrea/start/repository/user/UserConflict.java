@@ -0,0 +1,17 @@
+package it.andrea.start.repository.user;
+
+public interface UserConflict {
+
+    Long getUsernameCount();
+
+    Long getEmailCount();
+
+    default boolean isUsernameTaken() {
+        return getUsernameCount() != null && getUsernameCount() > 0;
+    }
+
+    default boolean isEmailTaken() {
+        return getEmailCount() != null && getEmailCount() > 0;
+    }
+
+}
@@ -0,0 +1,19 @@
+package it.andrea.start.repository.user;
+
+public interface UserExportRow {
+
+    Long getId();
+
+    String getUsername();
+
+    String getName();
+
+    String getEmail();
+
+    String getUserStatus();
+
+    Integer getLanguageDefault();
+
+    String getRoles();
+
+}
@@ -1,25 +1,76 @@
 package it.andrea.start.repository.user;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.lang.NonNull;
+import org.springframework.transaction.annotation.Transactional;
 
 import it.andrea.start.models.user.User;
+import jakarta.persistence.QueryHint;
 
-public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificationExecutor<User> {
+public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificationExecutor<User>, UserRepositoryCustom {
 
     @NonNull
     @Override
     Optional<User> findById(@NonNull Long id);
 
-    Optional<User> findByUsername(String username);
-
     Optional<User> findByEmail(String email);
 
     @NonNull
     List<User> findAll();
 
+    // Reads only the two unique keys: no entity or role collection is loaded to test for existence
+    // @formatter:off
+    @Query("SELECT SUM(CASE WHEN u.username = :username THEN 1 ELSE 0 END) AS usernameCount, "
+            + "SUM(CASE WHEN u.email = :email THEN 1 ELSE 0 END) AS emailCount "
+            + "FROM User u "
+            + "WHERE (u.username = :username OR u.email = :email) AND (:excludeId IS NULL OR u.id <> :excludeId)")
+    // @formatter:on
+    UserConflict findConflicts(@Param("username") String username, @Param("email") String email, @Param("excludeId") Long excludeId);
+
+    @Query("SELECT u.username FROM User u WHERE u.username IN :usernames")
+    List<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+    // Expects lower-case emails: matches regardless of how the stored email is cased
+    @Query("SELECT LOWER(u.email) FROM User u WHERE LOWER(u.email) IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    // Flat projection streamed through a server-side cursor: roles are aggregated, no entity is hydrated
+    // @formatter:off
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(value = "SELECT u.id AS id, u.username AS username, u.name AS name, u.email AS email, u.user_status AS userStatus, "
+            + "u.language_default AS languageDefault, string_agg(r.role, '|' ORDER BY r.role) AS roles "
+            + "FROM users u "
+            + "LEFT JOIN user_roles ur ON ur.user_id = u.id "
+            + "LEFT JOIN user_role r ON r.id = ur.role_id "
+            + "GROUP BY u.id "
+            + "ORDER BY u.id", nativeQuery = true)
+    // @formatter:on
+    Stream<UserExportRow> streamExportRows();
+
+    @Query("SELECT u.username FROM User u WHERE u.tokensRevokedAt = :revokedAt")
+    List<String> findUsernamesRevokedAt(@Param("revokedAt") Instant revokedAt);
+
+    @Query("SELECT u.username AS username, u.tokensRevokedAt AS tokensRevokedAt FROM User u WHERE u.tokensRevokedAt > :since")
+    List<UserTokenRevocation> findTokenRevocationsSince(@Param("since") Instant since);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.password = :password WHERE u.username = :username")
+    int updatePasswordHash(@Param("username") String username, @Param("password") String password);
+
 }
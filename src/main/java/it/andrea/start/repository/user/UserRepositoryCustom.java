@@ -0,0 +1,37 @@
+package it.andrea.start.repository.user;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.annotation.Transactional;
+
+import it.andrea.start.constants.RoleType;
+import it.andrea.start.constants.UserStatus;
+import it.andrea.start.models.user.User;
+import it.andrea.start.searchcriteria.user.UserSearchCriteria;
+
+public interface UserRepositoryCustom {
+
+    // The natural id API needs a live Session, also for callers outside a transaction
+    @Transactional(readOnly = true)
+    Optional<User> findByUsername(String username);
+
+    Page<User> findAllWithRoles(Specification<User> specification, Pageable pageable);
+
+    List<User> findSliceWithRoles(Specification<User> specification, String afterUsername, Long afterId, int limit);
+
+    Page<User> findAllRankedWithRoles(UserSearchCriteria criteria, String tsQuery, Pageable pageable);
+
+    int bulkUpdateStatus(Specification<User> target, UserStatus status, Collection<RoleType> protectedRoles, Instant revokedAt, String updatedBy);
+
+    Map<Long, String> findBulkTargets(Specification<User> target, Collection<RoleType> protectedRoles);
+
+    int bulkReplaceRoles(Collection<Long> ids, Collection<RoleType> roles, Instant revokedAt, String updatedBy);
+
+}
@@ -0,0 +1,271 @@
+package it.andrea.start.repository.user;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.apache.commons.lang3.StringUtils;
+import org.hibernate.Session;
+import org.hibernate.query.NativeQuery;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import it.andrea.start.constants.RoleType;
+import it.andrea.start.constants.UserStatus;
+import it.andrea.start.models.user.User;
+import it.andrea.start.models.user.UserRole;
+import it.andrea.start.searchcriteria.user.UserSearchCriteria;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CommonAbstractCriteria;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+
+public class UserRepositoryImpl implements UserRepositoryCustom {
+
+    private static final String ID = "id";
+    private static final String USERNAME = "username";
+    private static final String USER_STATUS = "userStatus";
+    private static final String ROLES = "roles";
+    private static final String ROLE = "role";
+    private static final String TOKENS_REVOKED_AT = "tokensRevokedAt";
+    private static final String UPDATED_AT = "updatedAt";
+    private static final String UPDATED_BY = "updatedBy";
+    private static final String VERSION = "version";
+
+    private static final int BULK_CHUNK_SIZE = 1000;
+    private static final String USER_ROLES_TABLE = "user_roles";
+    private static final String DELETE_USER_ROLES = "DELETE FROM user_roles WHERE user_id IN (:ids)";
+    private static final String INSERT_USER_ROLES = "INSERT INTO user_roles (user_id, role_id) SELECT u.id, r.id FROM users u CROSS JOIN user_role r WHERE u.id IN (:ids) AND r.role IN (:roles)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<User> findByUsername(String username) {
+        if (username == null) {
+            return Optional.empty();
+        }
+
+        // Natural id lookup: served from the second-level cache without a query when the user is cached
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(User.class).loadOptional(username);
+    }
+
+    @Override
+    public Page<User> findAllWithRoles(Specification<User> specification, Pageable pageable) {
+        List<Long> ids = findPageIds(specification, pageable);
+        return PageableExecutionUtils.getPage(loadWithRoles(ids), pageable, () -> count(specification));
+    }
+
+    @Override
+    public List<User> findSliceWithRoles(Specification<User> specification, String afterUsername, Long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<User> root = query.from(User.class);
+        query.select(root.get(ID));
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (specification != null) {
+            predicates.add(specification.toPredicate(root, query, cb));
+        }
+        if (afterUsername != null && afterId != null) {
+            // Seek past the last row of the previous slice: (username, id) > (:username, :id)
+            Path<String> username = root.get(USERNAME);
+            // @formatter:off
+            predicates.add(cb.or(
+                    cb.greaterThan(username, afterUsername),
+                    cb.and(cb.equal(username, afterUsername), cb.greaterThan(root.get(ID), afterId))));
+            // @formatter:on
+        }
+        query.where(predicates.toArray(new Predicate[0]));
+        query.orderBy(cb.asc(root.get(USERNAME)), cb.asc(root.get(ID)));
+
+        List<Long> ids = entityManager.createQuery(query).setMaxResults(limit).getResultList();
+        return loadWithRoles(ids);
+    }
+
+    @Override
+    public Page<User> findAllRankedWithRoles(UserSearchCriteria criteria, String tsQuery, Pageable pageable) {
+        Map<String, Object> parameters = new HashMap<>();
+        StringBuilder where = new StringBuilder(" WHERE u.search_vector @@ to_tsquery('simple', :query)");
+        parameters.put("query", tsQuery);
+
+        if (criteria.getId() != null) {
+            where.append(" AND u.id = :id");
+            parameters.put(ID, criteria.getId());
+        }
+        if (StringUtils.isNotBlank(criteria.getUsername())) {
+            where.append(" AND u.username = :username");
+            parameters.put(USERNAME, criteria.getUsername());
+        }
+        if (criteria.getUserStatus() != null) {
+            where.append(" AND u.user_status = :userStatus");
+            parameters.put("userStatus", criteria.getUserStatus().name());
+        }
+
+        Query idsQuery = entityManager.createNativeQuery("SELECT u.id FROM users u" + where + " ORDER BY ts_rank(u.search_vector, to_tsquery('simple', :query)) DESC, u.id", Long.class);
+        parameters.forEach(idsQuery::setParameter);
+        if (pageable.isPaged()) {
+            idsQuery.setFirstResult((int) pageable.getOffset());
+            idsQuery.setMaxResults(pageable.getPageSize());
+        }
+
+        @SuppressWarnings("unchecked")
+        List<Long> ids = idsQuery.getResultList();
+
+        return PageableExecutionUtils.getPage(loadWithRoles(ids), pageable, () -> {
+            Query countQuery = entityManager.createNativeQuery("SELECT count(*) FROM users u" + where, Long.class);
+            parameters.forEach(countQuery::setParameter);
+            return (Long) countQuery.getSingleResult();
+        });
+    }
+
+    @Override
+    public int bulkUpdateStatus(Specification<User> target, UserStatus status, Collection<RoleType> protectedRoles, Instant revokedAt, String updatedBy) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<User> update = cb.createCriteriaUpdate(User.class);
+        Root<User> root = update.from(User.class);
+
+        // Protection rules and the state change are evaluated by the database in one statement
+        // @formatter:off
+        update.where(
+                target.toPredicate(root, null, cb),
+                cb.notEqual(root.get(USER_STATUS), status),
+                cb.not(cb.exists(usersWithRoles(update, cb, root, protectedRoles))));
+        // @formatter:on
+        update.set(root.<UserStatus>get(USER_STATUS), status);
+        setRevocation(update, cb, root, revokedAt, updatedBy);
+
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    @Override
+    public Map<Long, String> findBulkTargets(Specification<User> target, Collection<RoleType> protectedRoles) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<User> root = query.from(User.class);
+        query.multiselect(root.get(ID), root.get(USERNAME));
+        query.where(target.toPredicate(root, query, cb), cb.not(cb.exists(usersWithRoles(query, cb, root, protectedRoles))));
+
+        Map<Long, String> targets = new LinkedHashMap<>();
+        entityManager.createQuery(query).getResultList().forEach(tuple -> targets.put(tuple.get(0, Long.class), tuple.get(1, String.class)));
+        return targets;
+    }
+
+    @Override
+    public int bulkReplaceRoles(Collection<Long> ids, Collection<RoleType> roles, Instant revokedAt, String updatedBy) {
+        List<String> roleNames = roles.stream().map(RoleType::name).toList();
+        List<Long> all = new ArrayList<>(ids);
+
+        int affected = 0;
+        for (int from = 0; from < all.size(); from += BULK_CHUNK_SIZE) {
+            List<Long> chunk = all.subList(from, Math.min(from + BULK_CHUNK_SIZE, all.size()));
+
+            // The join table has no entity: declare the table so that only the roles collection region is evicted
+            entityManager.createNativeQuery(DELETE_USER_ROLES).setParameter("ids", chunk).unwrap(NativeQuery.class).addSynchronizedQuerySpace(USER_ROLES_TABLE).executeUpdate();
+            entityManager.createNativeQuery(INSERT_USER_ROLES).setParameter("ids", chunk).setParameter("roles", roleNames).unwrap(NativeQuery.class).addSynchronizedQuerySpace(USER_ROLES_TABLE).executeUpdate();
+
+            CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+            CriteriaUpdate<User> update = cb.createCriteriaUpdate(User.class);
+            Root<User> root = update.from(User.class);
+            update.where(root.get(ID).in(chunk));
+            setRevocation(update, cb, root, revokedAt, updatedBy);
+            affected += entityManager.createQuery(update).executeUpdate();
+        }
+        return affected;
+    }
+
+    private static Subquery<Long> usersWithRoles(CommonAbstractCriteria criteria, CriteriaBuilder cb, Root<User> root, Collection<RoleType> roles) {
+        Subquery<Long> subquery = criteria.subquery(Long.class);
+        Root<User> other = subquery.from(User.class);
+        Join<User, UserRole> role = other.join(ROLES);
+        subquery.select(other.get(ID)).where(cb.equal(other.get(ID), root.get(ID)), role.get(ROLE).in(roles));
+        return subquery;
+    }
+
+    private static void setRevocation(CriteriaUpdate<User> update, CriteriaBuilder cb, Root<User> root, Instant revokedAt, String updatedBy) {
+        // Bulk statements bypass @Version and auditing: bump both explicitly so ETags and caches see the change
+        update.set(root.<Instant>get(TOKENS_REVOKED_AT), revokedAt);
+        update.set(root.<Instant>get(UPDATED_AT), revokedAt);
+        update.set(root.<String>get(UPDATED_BY), updatedBy);
+        update.set(root.<Long>get(VERSION), cb.sum(root.<Long>get(VERSION), 1L));
+    }
+
+    private List<User> loadWithRoles(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        // @formatter:off
+        List<User> users = entityManager
+                .createQuery("SELECT DISTINCT u FROM User u LEFT JOIN FETCH u.roles WHERE u.id IN :ids", User.class)
+                .setParameter("ids", ids)
+                .getResultList();
+        // @formatter:on
+
+        Map<Long, Integer> positions = new HashMap<>(ids.size() * 2);
+        for (int i = 0; i < ids.size(); i++) {
+            positions.put(ids.get(i), i);
+        }
+        List<User> ordered = new ArrayList<>(users);
+        ordered.sort(Comparator.comparing(user -> positions.get(user.getId())));
+        return ordered;
+    }
+
+    private List<Long> findPageIds(Specification<User> specification, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<User> root = query.from(User.class);
+        query.select(root.get(ID));
+
+        if (specification != null) {
+            query.where(specification.toPredicate(root, query, cb));
+        }
+
+        // The id is always the last sort key so that pages are stable
+        List<Order> orders = new ArrayList<>(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        if (pageable.getSort().getOrderFor(ID) == null) {
+            orders.add(cb.asc(root.get(ID)));
+        }
+        query.orderBy(orders);
+
+        TypedQuery<Long> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        return typedQuery.getResultList();
+    }
+
+    private long count(Specification<User> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<User> root = query.from(User.class);
+        query.select(cb.count(root));
+
+        if (specification != null) {
+            query.where(specification.toPredicate(root, query, cb));
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+}
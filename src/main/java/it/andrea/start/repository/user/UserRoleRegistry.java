@@ -0,0 +1,56 @@
+package it.andrea.start.repository.user;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import it.andrea.start.constants.RoleType;
+import it.andrea.start.error.exception.user.UserRoleNotFoundException;
+import it.andrea.start.models.user.UserRole;
+
+@Component
+public class UserRoleRegistry {
+
+    private static final Logger LOG = LoggerFactory.getLogger(UserRoleRegistry.class);
+
+    private final UserRoleRepository userRoleRepository;
+
+    private volatile Map<RoleType, UserRole> roles = Collections.emptyMap();
+
+    public UserRoleRegistry(UserRoleRepository userRoleRepository) {
+        this.userRoleRepository = userRoleRepository;
+    }
+
+    public void load() {
+        Map<RoleType, UserRole> loaded = new EnumMap<>(RoleType.class);
+        for (UserRole userRole : userRoleRepository.findAll()) {
+            // Detached copies: only the id is needed to write the user_roles join rows
+            UserRole role = new UserRole(userRole.getRole());
+            role.setId(userRole.getId());
+            loaded.put(role.getRole(), role);
+        }
+
+        roles = Collections.unmodifiableMap(loaded);
+        LOG.info("Registro ruoli caricato: {} ruoli", loaded.size());
+    }
+
+    public Optional<UserRole> find(RoleType roleType) {
+        UserRole userRole = roles.get(roleType);
+        if (userRole == null) {
+            // Roles are seeded at startup, a miss means the registry is not loaded yet
+            load();
+            userRole = roles.get(roleType);
+        }
+        return Optional.ofNullable(userRole);
+    }
+
+    public UserRole get(RoleType roleType) {
+        return find(roleType).orElseThrow(() -> new UserRoleNotFoundException(roleType));
+    }
+
+}
@@ -0,0 +1,63 @@
+package it.andrea.start.repository.user;
+
+import java.sql.DatabaseMetaData;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+@Component
+public class UserSearchIndex {
+
+    private static final Logger LOG = LoggerFactory.getLogger(UserSearchIndex.class);
+
+    private static final String POSTGRESQL = "PostgreSQL";
+
+    // Generated column: PostgreSQL keeps it in sync on every insert/update of users
+    // @formatter:off
+    private static final String ADD_SEARCH_VECTOR = "ALTER TABLE users ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS ("
+            + "setweight(to_tsvector('simple', coalesce(username, '')), 'A') || "
+            + "setweight(to_tsvector('simple', coalesce(name, '')), 'B') || "
+            + "setweight(to_tsvector('simple', coalesce(email, '')), 'C')) STORED";
+    // @formatter:on
+    private static final String CREATE_SEARCH_INDEX = "CREATE INDEX IF NOT EXISTS idx_user_search_vector ON users USING GIN (search_vector)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile boolean available;
+
+    public UserSearchIndex(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        try {
+            String databaseProduct = jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+                DatabaseMetaData metaData = connection.getMetaData();
+                return metaData.getDatabaseProductName();
+            });
+            if (!POSTGRESQL.equals(databaseProduct)) {
+                LOG.info("Ricerca full-text utenti non disponibile su {}", databaseProduct);
+                return;
+            }
+
+            jdbcTemplate.execute(ADD_SEARCH_VECTOR);
+            jdbcTemplate.execute(CREATE_SEARCH_INDEX);
+            available = true;
+            LOG.info("Indice full-text utenti pronto");
+        } catch (DataAccessException e) {
+            LOG.error("Impossibile creare l'indice full-text utenti, la ricerca userà LIKE", e);
+        }
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+}
@@ -0,0 +1,11 @@
+package it.andrea.start.repository.user;
+
+import java.time.Instant;
+
+public interface UserTokenRevocation {
+
+    String getUsername();
+
+    Instant getTokensRevokedAt();
+
+}
@@ -0,0 +1,57 @@
+package it.andrea.start.repository.user;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import it.andrea.start.models.user.User;
+
+@Component
+public class UserUniqueConstraints {
+
+    private static final Logger LOG = LoggerFactory.getLogger(UserUniqueConstraints.class);
+
+    private static final String[] LEGACY_INDEXES = { "IDX_USER_USERNAME", "IDX_USER_EMAIL" };
+
+    // @formatter:off
+    private static final String COUNT_CONSTRAINT = "SELECT COUNT(*) FROM information_schema.table_constraints "
+            + "WHERE constraint_type = 'UNIQUE' AND LOWER(table_name) = 'users' AND LOWER(constraint_name) = LOWER(?)";
+    // @formatter:on
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserUniqueConstraints(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // ddl-auto: update only warns when a constraint cannot be created and never drops the indexes it replaced,
+    // while create() relies on these constraints to reject concurrent duplicates
+    @EventListener(ApplicationReadyEvent.class)
+    public void verify() {
+        ensure(User.UK_USERNAME, "username");
+        ensure(User.UK_EMAIL, "email");
+
+        for (String index : LEGACY_INDEXES) {
+            jdbcTemplate.execute("DROP INDEX IF EXISTS " + index);
+        }
+    }
+
+    private void ensure(String constraint, String column) {
+        Integer count = jdbcTemplate.queryForObject(COUNT_CONSTRAINT, Integer.class, constraint);
+        if (count != null && count > 0) {
+            return;
+        }
+
+        LOG.warn("Vincolo {} mancante sulla tabella users, creazione in corso", constraint);
+        try {
+            jdbcTemplate.execute("ALTER TABLE users ADD CONSTRAINT " + constraint + " UNIQUE (" + column + ")");
+        } catch (DataAccessException e) {
+            throw new IllegalStateException("Impossibile creare il vincolo " + constraint + ": rimuovere i valori duplicati di users." + column, e);
+        }
+    }
+
+}
@@ -18,5 +18,6 @@ public class UserSearchCriteria implements Serializable {
     private String username;
     private String textSearch;
     private UserStatus userStatus;
+    private boolean rankedSearch;
 
 }
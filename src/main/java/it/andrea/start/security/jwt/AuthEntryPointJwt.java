@@ -1,20 +1,19 @@
 package it.andrea.start.security.jwt;
 
 import java.io.IOException;
+import java.util.Locale;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.context.MessageSource;
-import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.web.AuthenticationEntryPoint;
 import org.springframework.stereotype.Component;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-
-import it.andrea.start.error.ApiError;
+import it.andrea.start.constants.Language;
+import it.andrea.start.error.ErrorResponseCache;
 import it.andrea.start.error.exception.ErrorCode;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -26,8 +25,7 @@ public class AuthEntryPointJwt implements AuthenticationEntryPoint {
 
     private static final Logger LOG = LoggerFactory.getLogger(AuthEntryPointJwt.class);
 
-    private final MessageSource messageSource;
-    private final ObjectMapper objectMapper;
+    private final ErrorResponseCache errorResponseCache;
 
     @Override
     public void commence(HttpServletRequest request, HttpServletResponse response, AuthenticationException authException) throws IOException {
@@ -36,25 +34,20 @@ public class AuthEntryPointJwt implements AuthenticationEntryPoint {
         ErrorCode errorCode = ErrorCode.AUTHENTICATION_FAILED;
         HttpStatus status = errorCode.getHttpStatus();
 
-        // @formatter:off
-        String errorMessage = messageSource.getMessage(
-                errorCode.getCode(),
-                null,
-                "Authentication failed. Please check your credentials or token.",
-                LocaleContextHolder.getLocale());
-
-        ApiError apiError = new ApiError(
-                status,
-                errorCode,
-                errorMessage,
-                request.getRequestURI());
-        // @formatter:on
+        // Runs in the filter chain, before LanguageInterceptor: resolve the language the same way
+        byte[] body = errorResponseCache.render(errorCode, resolveLocale(request), request.getRequestURI());
 
         response.setStatus(status.value());
         response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+
+        response.getOutputStream().write(body);
+        response.getOutputStream().flush();
+    }
 
-        response.getWriter().write(objectMapper.writeValueAsString(apiError));
-        response.getWriter().flush();
+    private Locale resolveLocale(HttpServletRequest request) {
+        String languageTag = request.getHeader(HttpHeaders.ACCEPT_LANGUAGE);
+        return Language.fromTag(languageTag).orElse(Language.getDefault()).getLocale();
     }
 
     private void logErrorDetails(HttpServletRequest request, AuthenticationException authException) {
@@ -3,17 +3,18 @@ package it.andrea.start.security.jwt;
 import java.io.IOException;
 import java.util.Optional;
 
-import org.springframework.http.HttpHeaders;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.web.util.ContentCachingRequestWrapper;
 
 import it.andrea.start.security.service.JWTokenUserDetails;
+import it.andrea.start.security.service.RevokedTokenRegistry;
+import it.andrea.start.security.service.RevokedUserRegistry;
+import it.andrea.start.security.service.UserDetailsCache;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -21,25 +22,34 @@ import jakarta.servlet.http.HttpServletResponse;
 
 public class AuthTokenFilter extends OncePerRequestFilter {
 
-    private static final String BEARER_PREFIX = "Bearer ";
-
     private final JwtUtils jwtUtils;
-    private final UserDetailsService userDetailsService;
+    private final UserDetailsCache userDetailsCache;
+    private final RevokedUserRegistry revokedUserRegistry;
+    private final RevokedTokenRegistry revokedTokenRegistry;
+    private final boolean stateless;
 
-    public AuthTokenFilter(JwtUtils jwtUtils, UserDetailsService userDetailsService) {
+    // @formatter:off
+    public AuthTokenFilter(
+            JwtUtils jwtUtils,
+            UserDetailsCache userDetailsCache,
+            RevokedUserRegistry revokedUserRegistry,
+            RevokedTokenRegistry revokedTokenRegistry,
+            boolean stateless) {
+        // @formatter:on
         this.jwtUtils = jwtUtils;
-        this.userDetailsService = userDetailsService;
+        this.userDetailsCache = userDetailsCache;
+        this.revokedUserRegistry = revokedUserRegistry;
+        this.revokedTokenRegistry = revokedTokenRegistry;
+        this.stateless = stateless;
     }
 
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain filterChain) throws IOException, ServletException {
         ContentCachingRequestWrapper wrappedRequest = new ContentCachingRequestWrapper(request);
-        String jwt = parseJwt(wrappedRequest);
+        String jwt = jwtUtils.parseJwt(wrappedRequest);
         Optional<JWTokenUserDetails> jwtTokenUserDetailOpt = jwtUtils.validateAndParseToken(jwt);
-        if (jwtTokenUserDetailOpt.isPresent()) {
-            String username = jwtTokenUserDetailOpt.get().getUsername();
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-
+        UserDetails userDetails = jwtTokenUserDetailOpt.map(this::resolveUserDetails).orElse(null);
+        if (userDetails != null) {
             UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
             authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(wrappedRequest));
 
@@ -49,11 +59,19 @@ public class AuthTokenFilter extends OncePerRequestFilter {
         filterChain.doFilter(wrappedRequest, response);
     }
 
-    private String parseJwt(HttpServletRequest request) {
-        String headerAuth = request.getHeader(HttpHeaders.AUTHORIZATION);
-        if (headerAuth != null && headerAuth.startsWith(BEARER_PREFIX)) {
-            return headerAuth.substring(7);
+    private UserDetails resolveUserDetails(JWTokenUserDetails tokenUserDetails) {
+        if (revokedTokenRegistry.isRevoked(tokenUserDetails.getTokenId())) {
+            return null;
+        }
+
+        if (!stateless) {
+            return userDetailsCache.get(tokenUserDetails.getUsername());
         }
-        return null;
+
+        if (revokedUserRegistry.isRevoked(tokenUserDetails.getUsername(), tokenUserDetails.getIssuedAt())) {
+            return null;
+        }
+        return tokenUserDetails;
     }
+
 }
\ No newline at end of file
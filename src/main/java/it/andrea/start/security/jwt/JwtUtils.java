@@ -1,47 +1,87 @@
 package it.andrea.start.security.jwt;
 
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Date;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 import javax.crypto.SecretKey;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import it.andrea.start.security.service.JWTokenUserDetails;
+import it.andrea.start.utils.HelperAuthorization;
 import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
 
 @Component
 public class JwtUtils {
 
     private static final Logger LOG = LoggerFactory.getLogger(JwtUtils.class);
 
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final String ROLES_CLAIM = "roles";
+    private static final String LEGACY_AUTHORITIES_CLAIM = "authorities";
+
     @Value(value = "${jwt.secret}")
     private String jwtSecret;
 
     @Value(value = "${jwt.expiration.days}")
     private int jwtExpirationDays;
 
+    @Value(value = "${jwt.cache.max-size}")
+    private long tokenCacheMaxSize;
+
+    private final MeterRegistry meterRegistry;
+
     private SecretKey secretKey;
+    private JwtParser jwtParser;
+    private Cache<String, VerifiedToken> verifiedTokens;
+
+    public JwtUtils(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
 
     @PostConstruct
     protected void init() {
         this.secretKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        this.jwtParser = Jwts.parser().verifyWith(secretKey).build();
+
+        // @formatter:off
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(tokenCacheMaxSize)
+                .expireAfter(new VerifiedTokenExpiry())
+                .recordStats()
+                .build();
+        // @formatter:on
+
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwtTokens");
     }
 
     public String generateToken(Authentication authentication) {
@@ -52,10 +92,9 @@ public class JwtUtils {
 
         // @formatter:off
         return Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .subject(userPrincipal.getUsername())
-                .claim("authorities", userPrincipal.getAuthorities().stream()
-                        .map(GrantedAuthority::getAuthority)
-                        .toList())
+                .claim(ROLES_CLAIM, userPrincipal.getRoleMask())
                 .issuedAt(Date.from(now))
                 .expiration(Date.from(expiration))
                 .signWith(secretKey)
@@ -63,30 +102,56 @@ public class JwtUtils {
         // @formatter:on
     }
 
+    public String parseJwt(HttpServletRequest request) {
+        String headerAuth = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (headerAuth != null && headerAuth.startsWith(BEARER_PREFIX)) {
+            return headerAuth.substring(BEARER_PREFIX.length());
+        }
+        return null;
+    }
+
     public Optional<JWTokenUserDetails> validateAndParseToken(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+
+        String tokenHash = hash(token);
+        VerifiedToken verifiedToken = verifiedTokens.getIfPresent(tokenHash);
+        if (verifiedToken != null) {
+            return Optional.of(verifiedToken.userDetails());
+        }
+
+        Optional<VerifiedToken> parsedToken = parseToken(token);
+        parsedToken.ifPresent(parsed -> verifiedTokens.put(tokenHash, parsed));
+
+        return parsedToken.map(VerifiedToken::userDetails);
+    }
+
+    private Optional<VerifiedToken> parseToken(String token) {
         try {
             // @formatter:off
-            Claims claims = Jwts.parser()
-                    .verifyWith(secretKey)
-                    .build()
+            Claims claims = jwtParser
                     .parseSignedClaims(token)
                     .getPayload();
 
             String username = claims.getSubject();
-            List<?> rawAuthorities = claims.get("authorities", List.class);
-            List<String> authorities = rawAuthorities.stream()
-                    .map(String::valueOf)
-                    .toList();
-
-            return Optional.of(new JWTokenUserDetails.Builder()
+            Date issuedAt = claims.getIssuedAt();
+            Date expiration = claims.getExpiration();
+            JWTokenUserDetails userDetails = new JWTokenUserDetails.Builder()
                     .username(username)
                     .password("")
-                    .authorities(authorities.stream()
-                            .map(SimpleGrantedAuthority::new)
-                            .toList())
-                    .build());
+                    .roleMask(roleMask(claims))
+                    .accountNonExpired(true)
+                    .accountNonLocked(true)
+                    .enabled(true)
+                    .issuedAt(issuedAt != null ? issuedAt.toInstant() : null)
+                    .expiresAt(expiration != null ? expiration.toInstant() : null)
+                    .tokenId(claims.getId())
+                    .build();
             // @formatter:on
 
+            return Optional.of(new VerifiedToken(userDetails, expiration != null ? expiration.toInstant() : Instant.now()));
+
         } catch (ExpiredJwtException ex) {
             LOG.warn("JWT expired: {}", ex.getMessage());
         } catch (MalformedJwtException ex) {
@@ -98,4 +163,52 @@ public class JwtUtils {
         return Optional.empty();
     }
 
-}
\ No newline at end of file
+    private static long roleMask(Claims claims) {
+        Long roleMask = claims.get(ROLES_CLAIM, Long.class);
+        if (roleMask != null) {
+            return roleMask;
+        }
+
+        // Tokens issued before the roles claim carry the authority names
+        List<?> rawAuthorities = claims.get(LEGACY_AUTHORITIES_CLAIM, List.class);
+        if (rawAuthorities == null) {
+            return 0;
+        }
+        // @formatter:off
+        return HelperAuthorization.roleMask(rawAuthorities.stream()
+                .map(authority -> new SimpleGrantedAuthority(String.valueOf(authority)))
+                .toList());
+        // @formatter:on
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record VerifiedToken(JWTokenUserDetails userDetails, Instant expiration) {
+    }
+
+    private static class VerifiedTokenExpiry implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+            return Math.max(0, Duration.between(Instant.now(), value.expiration()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+}
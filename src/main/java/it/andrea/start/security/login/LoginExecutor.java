@@ -0,0 +1,86 @@
+package it.andrea.start.security.login;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import it.andrea.start.error.exception.BusinessException;
+import it.andrea.start.error.exception.ErrorCode;
+import jakarta.annotation.PreDestroy;
+
+@Component
+public class LoginExecutor {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LoginExecutor.class);
+
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+
+    public LoginExecutor(
+            MeterRegistry meterRegistry, //
+            @Value("${app.security.login.executor.threads}") int threads, //
+            @Value("${app.security.login.executor.queue-capacity}") int queueCapacity, //
+            @Value("${app.security.login.executor.timeout-millis}") long timeoutMillis) {
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.timeoutMillis = timeoutMillis;
+
+        // @formatter:off
+        this.executor = new ThreadPoolExecutor(
+                poolSize,
+                poolSize,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("login-hash-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        // @formatter:on
+
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "loginExecutor");
+        LOG.info("Login executor started with {} threads and a queue of {}", poolSize, queueCapacity);
+    }
+
+    public <T> T execute(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw new BusinessException(ErrorCode.AUTHORIZE_LOGIN_BUSY);
+        }
+
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new BusinessException(ErrorCode.AUTHORIZE_LOGIN_BUSY);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new BusinessException(ErrorCode.AUTHORIZE_LOGIN_BUSY);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+}
@@ -0,0 +1,76 @@
+package it.andrea.start.security.login;
+
+import java.time.Duration;
+import java.util.Locale;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import it.andrea.start.error.exception.BusinessException;
+import it.andrea.start.error.exception.ErrorCode;
+
+@Component
+public class LoginThrottle {
+
+    private final Cache<String, TokenBucket> usernameBuckets;
+    private final Cache<String, TokenBucket> ipBuckets;
+    private final long usernameCapacity;
+    private final double usernameRefillPerSecond;
+    private final long ipCapacity;
+    private final double ipRefillPerSecond;
+    private final Counter usernameRejections;
+    private final Counter ipRejections;
+
+    public LoginThrottle(
+            MeterRegistry meterRegistry, //
+            @Value("${app.security.login.throttle.max-keys}") long maxKeys, //
+            @Value("${app.security.login.throttle.username.capacity}") long usernameCapacity, //
+            @Value("${app.security.login.throttle.username.refill-per-minute}") double usernameRefillPerMinute, //
+            @Value("${app.security.login.throttle.ip.capacity}") long ipCapacity, //
+            @Value("${app.security.login.throttle.ip.refill-per-minute}") double ipRefillPerMinute) {
+
+        this.usernameCapacity = usernameCapacity;
+        this.usernameRefillPerSecond = usernameRefillPerMinute / 60d;
+        this.ipCapacity = ipCapacity;
+        this.ipRefillPerSecond = ipRefillPerMinute / 60d;
+
+        // An idle bucket is full again after capacity / refill, so it can be dropped after that
+        this.usernameBuckets = buildCache(maxKeys, usernameCapacity, usernameRefillPerSecond);
+        this.ipBuckets = buildCache(maxKeys, ipCapacity, ipRefillPerSecond);
+
+        this.usernameRejections = Counter.builder("security.login.throttled").tag("key", "username").register(meterRegistry);
+        this.ipRejections = Counter.builder("security.login.throttled").tag("key", "ip").register(meterRegistry);
+    }
+
+    public void acquire(String username, String ipAddress) {
+        if (ipAddress != null && !ipBuckets.get(ipAddress, key -> new TokenBucket(ipCapacity, ipRefillPerSecond)).tryConsume()) {
+            ipRejections.increment();
+            throw new BusinessException(ErrorCode.AUTHORIZE_TOO_MANY_ATTEMPTS);
+        }
+
+        if (username != null) {
+            String key = username.toUpperCase(Locale.ROOT);
+            if (!usernameBuckets.get(key, k -> new TokenBucket(usernameCapacity, usernameRefillPerSecond)).tryConsume()) {
+                usernameRejections.increment();
+                throw new BusinessException(ErrorCode.AUTHORIZE_TOO_MANY_ATTEMPTS);
+            }
+        }
+    }
+
+    private static Cache<String, TokenBucket> buildCache(long maxKeys, long capacity, double refillPerSecond) {
+        long secondsToFull = (long) Math.ceil(capacity / refillPerSecond);
+
+        // @formatter:off
+        return Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(Duration.ofSeconds(Math.max(1, secondsToFull)))
+                .build();
+        // @formatter:on
+    }
+
+}
@@ -0,0 +1,38 @@
+package it.andrea.start.security.login;
+
+import java.util.function.LongSupplier;
+
+final class TokenBucket {
+
+    private final long capacity;
+    private final double refillPerNano;
+    private final LongSupplier nanoClock;
+
+    private double tokens;
+    private long lastRefillNanos;
+
+    TokenBucket(long capacity, double refillPerSecond) {
+        this(capacity, refillPerSecond, System::nanoTime);
+    }
+
+    TokenBucket(long capacity, double refillPerSecond, LongSupplier nanoClock) {
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / 1_000_000_000d;
+        this.nanoClock = nanoClock;
+        this.tokens = capacity;
+        this.lastRefillNanos = nanoClock.getAsLong();
+    }
+
+    synchronized boolean tryConsume() {
+        long now = nanoClock.getAsLong();
+        tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * refillPerNano);
+        lastRefillNanos = now;
+
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+
+}
@@ -0,0 +1,185 @@
+package it.andrea.start.security.password;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm;
+import org.springframework.stereotype.Component;
+
+@Component
+public class PasswordEncoderFactory {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PasswordEncoderFactory.class);
+
+    private static final String CALIBRATION_PASSWORD = "calibration-password";
+    private static final int CALIBRATION_SAMPLES = 3;
+    private static final int BCRYPT_MAX_COST = 16;
+    private static final String PBKDF2_COST_SEPARATOR = "@";
+
+    private final PasswordHashAlgorithm algorithm;
+    private final Map<PasswordHashAlgorithm, Integer> costs = new EnumMap<>(PasswordHashAlgorithm.class);
+    private final int argon2MemoryKib;
+    private final int argon2Parallelism;
+    private final long targetMillis;
+
+    public PasswordEncoderFactory(
+            @Value("${app.security.password.algorithm}") PasswordHashAlgorithm algorithm, //
+            @Value("${app.security.password.cost.bcrypt}") int bcryptCost, //
+            @Value("${app.security.password.cost.argon2}") int argon2Cost, //
+            @Value("${app.security.password.cost.pbkdf2}") int pbkdf2Cost, //
+            @Value("${app.security.password.argon2-memory-kib}") int argon2MemoryKib, //
+            @Value("${app.security.password.argon2-parallelism}") int argon2Parallelism, //
+            @Value("${app.security.password.target-millis}") long targetMillis) {
+
+        this.algorithm = algorithm;
+        this.costs.put(PasswordHashAlgorithm.BCRYPT, checkCost(PasswordHashAlgorithm.BCRYPT, bcryptCost));
+        this.costs.put(PasswordHashAlgorithm.ARGON2, checkCost(PasswordHashAlgorithm.ARGON2, argon2Cost));
+        this.costs.put(PasswordHashAlgorithm.PBKDF2, checkCost(PasswordHashAlgorithm.PBKDF2, pbkdf2Cost));
+        this.argon2MemoryKib = argon2MemoryKib;
+        this.argon2Parallelism = argon2Parallelism;
+        this.targetMillis = targetMillis;
+    }
+
+    public PasswordEncoder create() {
+        int configuredCost = costs.get(algorithm);
+        int effectiveCost = configuredCost > 0 ? configuredCost : calibrate(algorithm, targetMillis);
+        LOG.info("Password hashing: algorithm {} with cost {}", algorithm.getId(), effectiveCost);
+
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        for (PasswordHashAlgorithm candidate : PasswordHashAlgorithm.values()) {
+            int candidateCost = candidate == algorithm ? effectiveCost : Math.max(costs.get(candidate), candidate.getMinimumCost());
+            encoders.put(encodingId(candidate, candidateCost), encoder(candidate, candidateCost));
+        }
+        // {pbkdf2} hashes written before the cost was part of the id used the configured iteration count
+        encoders.put(PasswordHashAlgorithm.PBKDF2.getId(), encoder(PasswordHashAlgorithm.PBKDF2, costs.get(PasswordHashAlgorithm.PBKDF2)));
+
+        DelegatingPasswordEncoder delegatingPasswordEncoder = new DelegatingPasswordEncoder(encodingId(algorithm, effectiveCost), encoders);
+        delegatingPasswordEncoder.setDefaultPasswordEncoderForMatches(new UnmappedIdMatcher(encoders.get(PasswordHashAlgorithm.BCRYPT.getId())));
+        return delegatingPasswordEncoder;
+    }
+
+    // PBKDF2 hashes do not record the iteration count: it goes in the id, so a cost change is an id change
+    // and DelegatingPasswordEncoder.upgradeEncoding rehashes the password on the next login
+    private static String encodingId(PasswordHashAlgorithm target, int targetCost) {
+        return target == PasswordHashAlgorithm.PBKDF2 ? target.getId() + PBKDF2_COST_SEPARATOR + targetCost : target.getId();
+    }
+
+    public int calibrate(PasswordHashAlgorithm target, long millis) {
+        int calibrated = switch (target) {
+            case BCRYPT -> calibrateExponential(millis);
+            case ARGON2, PBKDF2 -> calibrateLinear(target, millis);
+        };
+        LOG.info("Password hashing calibration: {} cost {} for a target of {} ms", target.getId(), calibrated, millis);
+        return calibrated;
+    }
+
+    private static int checkCost(PasswordHashAlgorithm target, int configured) {
+        // A calibrated PBKDF2 cost differs between nodes, and each node would keep rehashing the others' passwords
+        if (configured == 0 && target == PasswordHashAlgorithm.PBKDF2) {
+            throw new IllegalStateException("Il costo di pbkdf2 deve essere configurato esplicitamente");
+        }
+        if (configured != 0 && configured < target.getMinimumCost()) {
+            throw new IllegalStateException("Costo " + configured + " sotto il minimo di " + target.getMinimumCost() + " per " + target.getId());
+        }
+        return configured;
+    }
+
+    private int calibrateExponential(long millis) {
+        // Each BCrypt cost step doubles the work: keep the highest cost still within the target
+        int chosen = PasswordHashAlgorithm.BCRYPT.getMinimumCost();
+        for (int candidate = chosen; candidate <= BCRYPT_MAX_COST; candidate++) {
+            long elapsed = measure(candidate, c -> encoder(PasswordHashAlgorithm.BCRYPT, c));
+            LOG.debug("Password hashing calibration: bcrypt cost {} took {} ms", candidate, elapsed);
+            if (elapsed > millis) {
+                break;
+            }
+            chosen = candidate;
+        }
+        return chosen;
+    }
+
+    private int calibrateLinear(PasswordHashAlgorithm target, long millis) {
+        // Argon2 and PBKDF2 scale linearly with iterations: measure the minimum and extrapolate
+        int baseCost = target.getMinimumCost();
+        long elapsed = Math.max(1, measure(baseCost, c -> encoder(target, c)));
+        LOG.debug("Password hashing calibration: {} cost {} took {} ms", target.getId(), baseCost, elapsed);
+        return (int) Math.max(baseCost, baseCost * millis / elapsed);
+    }
+
+    private long measure(int candidateCost, IntFunction<PasswordEncoder> encoderFactory) {
+        PasswordEncoder encoder = encoderFactory.apply(candidateCost);
+        encoder.encode(CALIBRATION_PASSWORD);
+
+        long[] samples = new long[CALIBRATION_SAMPLES];
+        for (int i = 0; i < CALIBRATION_SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode(CALIBRATION_PASSWORD);
+            samples[i] = (System.nanoTime() - start) / 1_000_000;
+        }
+        Arrays.sort(samples);
+        return samples[CALIBRATION_SAMPLES / 2];
+    }
+
+    private PasswordEncoder encoder(PasswordHashAlgorithm target, int targetCost) {
+        return switch (target) {
+            case BCRYPT -> new BCryptPasswordEncoder(targetCost);
+            case ARGON2 -> new Argon2PasswordEncoder(16, 32, argon2Parallelism, argon2MemoryKib, targetCost);
+            case PBKDF2 -> new Pbkdf2PasswordEncoder("", 16, targetCost, SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256);
+        };
+    }
+
+    // Receives the full stored hash when its id is not registered: {pbkdf2@<cost>} hashes from a previous cost,
+    // or hashes stored before the {id} prefix was introduced, which are plain BCrypt
+    private final class UnmappedIdMatcher implements PasswordEncoder {
+
+        private final String prefix = "{" + PasswordHashAlgorithm.PBKDF2.getId() + PBKDF2_COST_SEPARATOR;
+        private final Map<Integer, PasswordEncoder> pbkdf2Encoders = new ConcurrentHashMap<>();
+        private final PasswordEncoder legacyEncoder;
+
+        private UnmappedIdMatcher(PasswordEncoder legacyEncoder) {
+            this.legacyEncoder = legacyEncoder;
+        }
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            throw new UnsupportedOperationException("Encoding is delegated to the configured algorithm");
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            if (encodedPassword == null || !encodedPassword.startsWith(prefix)) {
+                return legacyEncoder.matches(rawPassword, encodedPassword);
+            }
+
+            int end = encodedPassword.indexOf('}', prefix.length());
+            if (end < 0) {
+                return false;
+            }
+            int previousCost;
+            try {
+                previousCost = Integer.parseInt(encodedPassword.substring(prefix.length(), end));
+            } catch (NumberFormatException e) {
+                return false;
+            }
+            if (previousCost < PasswordHashAlgorithm.PBKDF2.getMinimumCost()) {
+                return false;
+            }
+            PasswordEncoder pbkdf2 = pbkdf2Encoders.computeIfAbsent(previousCost, c -> encoder(PasswordHashAlgorithm.PBKDF2, c));
+            return pbkdf2.matches(rawPassword, encodedPassword.substring(end + 1));
+        }
+
+    }
+
+}
@@ -0,0 +1,25 @@
+package it.andrea.start.security.password;
+
+public enum PasswordHashAlgorithm {
+
+    BCRYPT("bcrypt", 10),
+    ARGON2("argon2", 2),
+    PBKDF2("pbkdf2", 310_000);
+
+    private final String id;
+    private final int minimumCost;
+
+    PasswordHashAlgorithm(String id, int minimumCost) {
+        this.id = id;
+        this.minimumCost = minimumCost;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public int getMinimumCost() {
+        return minimumCost;
+    }
+
+}
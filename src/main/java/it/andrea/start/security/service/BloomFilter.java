@@ -0,0 +1,63 @@
+package it.andrea.start.security.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+final class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        long n = Math.max(1, expectedInsertions);
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.min(Integer.MAX_VALUE - 8L, Math.max(1, (m + 63) >>> 6));
+
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words << 6;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+    }
+
+    void put(String value) {
+        long hash = hash(value);
+        long h1 = mix(hash);
+        long h2 = mix(hash ^ 0x9E3779B97F4A7C15L) | 1L;
+
+        for (int i = 0; i < hashCount; i++) {
+            long index = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            int word = (int) (index >>> 6);
+            long mask = 1L << index;
+            bits.getAndUpdate(word, current -> current | mask);
+        }
+    }
+
+    boolean mightContain(String value) {
+        long hash = hash(value);
+        long h1 = mix(hash);
+        long h2 = mix(hash ^ 0x9E3779B97F4A7C15L) | 1L;
+
+        for (int i = 0; i < hashCount; i++) {
+            long index = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long hash(String value) {
+        long h = 1125899906842597L;
+        for (int i = 0; i < value.length(); i++) {
+            h = 31 * h + value.charAt(i);
+        }
+        return h;
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+}
@@ -1,13 +1,16 @@
 package it.andrea.start.security.service;
 
 import java.io.Serial;
+import java.time.Instant;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.Objects;
 
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import it.andrea.start.constants.RoleType;
+import it.andrea.start.utils.HelperAuthorization;
+
 public class JWTokenUserDetails implements UserDetails {
 
     @Serial
@@ -15,20 +18,30 @@ public class JWTokenUserDetails implements UserDetails {
 
     private final String username;
     private final String password;
+    private final long roleMask;
+    private final long grantedMask;
     private final Collection<? extends GrantedAuthority> authorities;
     private final boolean accountNonExpired;
     private final boolean accountNonLocked;
     private final boolean credentialsNonExpired;
     private final boolean enabled;
+    private final Instant issuedAt;
+    private final Instant expiresAt;
+    private final String tokenId;
 
     private JWTokenUserDetails(Builder builder) {
         this.username = Objects.requireNonNull(builder.username);
         this.password = Objects.requireNonNull(builder.password);
-        this.authorities = Collections.unmodifiableCollection(builder.authorities);
+        this.roleMask = builder.authorities != null ? HelperAuthorization.roleMask(builder.authorities) : builder.roleMask;
+        this.grantedMask = HelperAuthorization.grantedMask(roleMask);
+        this.authorities = HelperAuthorization.authorities(roleMask);
         this.accountNonExpired = builder.accountNonExpired;
         this.accountNonLocked = builder.accountNonLocked;
         this.credentialsNonExpired = true;
         this.enabled = builder.enabled;
+        this.issuedAt = builder.issuedAt;
+        this.expiresAt = builder.expiresAt;
+        this.tokenId = builder.tokenId;
     }
 
     @Override
@@ -66,13 +79,37 @@ public class JWTokenUserDetails implements UserDetails {
         return enabled;
     }
 
+    public long getRoleMask() {
+        return roleMask;
+    }
+
+    public boolean hasRole(RoleType role) {
+        return HelperAuthorization.hasRole(grantedMask, role);
+    }
+
+    public Instant getIssuedAt() {
+        return issuedAt;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public String getTokenId() {
+        return tokenId;
+    }
+
     public static class Builder {
         private String username;
         private String password;
         private Collection<? extends GrantedAuthority> authorities;
+        private long roleMask;
         private boolean accountNonExpired;
         private boolean accountNonLocked;
         private boolean enabled;
+        private Instant issuedAt;
+        private Instant expiresAt;
+        private String tokenId;
 
         public Builder username(String username) {
             this.username = username;
@@ -89,6 +126,11 @@ public class JWTokenUserDetails implements UserDetails {
             return this;
         }
 
+        public Builder roleMask(long roleMask) {
+            this.roleMask = roleMask;
+            return this;
+        }
+
         public Builder accountNonExpired(boolean isAccountNonExpired) {
             this.accountNonExpired = isAccountNonExpired;
             return this;
@@ -104,6 +146,21 @@ public class JWTokenUserDetails implements UserDetails {
             return this;
         }
 
+        public Builder issuedAt(Instant issuedAt) {
+            this.issuedAt = issuedAt;
+            return this;
+        }
+
+        public Builder expiresAt(Instant expiresAt) {
+            this.expiresAt = expiresAt;
+            return this;
+        }
+
+        public Builder tokenId(String tokenId) {
+            this.tokenId = tokenId;
+            return this;
+        }
+
         public JWTokenUserDetails build() {
             return new JWTokenUserDetails(this);
         }
@@ -0,0 +1,118 @@
+package it.andrea.start.security.service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import it.andrea.start.models.user.RevokedToken;
+import it.andrea.start.repository.user.RevokedTokenRepository;
+import jakarta.annotation.PostConstruct;
+
+@Component
+public class RevokedTokenRegistry {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RevokedTokenRegistry.class);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final long expectedTokens;
+    private final double falsePositiveRate;
+
+    private final Map<String, Instant> revokedTokens = new ConcurrentHashMap<>();
+    private volatile BloomFilter bloomFilter;
+    private long bloomCapacity;
+    private volatile Instant lastRevokedAt = Instant.EPOCH;
+
+    public RevokedTokenRegistry(
+            RevokedTokenRepository revokedTokenRepository, //
+            MeterRegistry meterRegistry, //
+            @Value("${app.security.revocation.expected-tokens}") long expectedTokens, //
+            @Value("${app.security.revocation.false-positive-rate}") double falsePositiveRate) {
+
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.expectedTokens = expectedTokens;
+        this.falsePositiveRate = falsePositiveRate;
+        this.bloomFilter = new BloomFilter(expectedTokens, falsePositiveRate);
+        this.bloomCapacity = expectedTokens;
+
+        Gauge.builder("security.revoked.tokens", revokedTokens, Map::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    protected void init() {
+        List<RevokedToken> rows = revokedTokenRepository.findActive(Instant.now());
+        rows.forEach(this::apply);
+        LOG.info("Revoked token registry loaded: {} active revoked tokens", rows.size());
+    }
+
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null) {
+            return false;
+        }
+        return bloomFilter.mightContain(tokenId) && revokedTokens.containsKey(tokenId);
+    }
+
+    public void revoke(RevokedToken revokedToken) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(revokedToken);
+                }
+            });
+        } else {
+            apply(revokedToken);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.revocation.refresh-seconds}", initialDelayString = "${app.security.revocation.refresh-seconds}", timeUnit = TimeUnit.SECONDS)
+    public void refresh() {
+        // Overlap the window so rows committed out of order by other nodes are not missed
+        Instant since = lastRevokedAt.minusSeconds(60);
+        List<RevokedToken> rows = revokedTokenRepository.findRevokedSince(since, Instant.now());
+        rows.forEach(this::apply);
+        LOG.debug("Revoked token registry refreshed: {} rows since {}", rows.size(), since);
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.revocation.purge-minutes}", initialDelayString = "${app.security.revocation.purge-minutes}", timeUnit = TimeUnit.MINUTES)
+    public void purge() {
+        Instant now = Instant.now();
+        int deleted = revokedTokenRepository.deleteExpired(now);
+        rebuild(now);
+        LOG.debug("Revoked token registry purged: {} expired rows deleted, {} tokens retained", deleted, revokedTokens.size());
+    }
+
+    private synchronized void apply(RevokedToken revokedToken) {
+        if (revokedTokens.putIfAbsent(revokedToken.getTokenId(), revokedToken.getExpiresAt()) == null) {
+            bloomFilter.put(revokedToken.getTokenId());
+            if (revokedTokens.size() > bloomCapacity) {
+                rebuild(Instant.now());
+            }
+        }
+        if (revokedToken.getRevokedAt().isAfter(lastRevokedAt)) {
+            lastRevokedAt = revokedToken.getRevokedAt();
+        }
+    }
+
+    private synchronized void rebuild(Instant now) {
+        revokedTokens.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+
+        long capacity = Math.max(expectedTokens, revokedTokens.size() * 2L);
+        BloomFilter rebuilt = new BloomFilter(capacity, falsePositiveRate);
+        revokedTokens.keySet().forEach(rebuilt::put);
+        bloomFilter = rebuilt;
+        bloomCapacity = capacity;
+    }
+
+}
@@ -0,0 +1,113 @@
+package it.andrea.start.security.service;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import it.andrea.start.configuration.GlobalConfig;
+import it.andrea.start.repository.user.UserRepository;
+import it.andrea.start.repository.user.UserTokenRevocation;
+import jakarta.annotation.PostConstruct;
+
+@Component
+public class RevokedUserRegistry {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RevokedUserRegistry.class);
+
+    private final UserRepository userRepository;
+    private final GlobalConfig globalConfig;
+    private final int jwtExpirationDays;
+
+    private volatile Map<String, Instant> revocations = new ConcurrentHashMap<>();
+
+    public RevokedUserRegistry(
+            UserRepository userRepository, //
+            GlobalConfig globalConfig, //
+            @Value("${jwt.expiration.days}") int jwtExpirationDays) {
+
+        this.userRepository = userRepository;
+        this.globalConfig = globalConfig;
+        this.jwtExpirationDays = jwtExpirationDays;
+    }
+
+    @PostConstruct
+    protected void init() {
+        if (globalConfig.isStatelessAuthentication()) {
+            refresh();
+        }
+    }
+
+    public boolean isRevoked(String username, Instant issuedAt) {
+        Instant revokedAt = revocations.get(username);
+        if (revokedAt == null) {
+            return false;
+        }
+        if (issuedAt == null) {
+            return true;
+        }
+
+        // iat has second precision: a token issued in the same second as the revocation is rejected
+        return !issuedAt.isAfter(revokedAt.truncatedTo(ChronoUnit.SECONDS));
+    }
+
+    public void revoke(String username, Instant revokedAt) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(username, revokedAt);
+                }
+            });
+        } else {
+            apply(username, revokedAt);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.stateless.refresh-seconds}", initialDelayString = "${app.security.stateless.refresh-seconds}", timeUnit = TimeUnit.SECONDS)
+    public void refresh() {
+        if (!globalConfig.isStatelessAuthentication()) {
+            return;
+        }
+
+        Instant since = Instant.now().minus(jwtExpirationDays, ChronoUnit.DAYS);
+        List<UserTokenRevocation> rows = userRepository.findTokenRevocationsSince(since);
+
+        Map<String, Instant> snapshot = new HashMap<>(rows.size() * 2);
+        rows.forEach(row -> snapshot.merge(row.getUsername(), row.getTokensRevokedAt(), RevokedUserRegistry::latest));
+
+        swap(snapshot, since);
+        LOG.debug("Revoked user registry refreshed: {} users with revoked tokens", snapshot.size());
+    }
+
+    private synchronized void apply(String username, Instant revokedAt) {
+        revocations.merge(username, revokedAt, RevokedUserRegistry::latest);
+    }
+
+    private synchronized void swap(Map<String, Instant> snapshot, Instant since) {
+        // Keep local revocations that may have been committed after the query started
+        revocations.forEach((username, revokedAt) -> {
+            if (revokedAt.isAfter(since)) {
+                snapshot.merge(username, revokedAt, RevokedUserRegistry::latest);
+            }
+        });
+
+        revocations = new ConcurrentHashMap<>(snapshot);
+    }
+
+    private static Instant latest(Instant first, Instant second) {
+        return first.isAfter(second) ? first : second;
+    }
+
+}
@@ -0,0 +1,66 @@
+package it.andrea.start.security.service;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+@Component
+public class UserDetailsCache {
+
+    private static final String CACHE_NAME = "userDetails";
+
+    private final UserDetailsServiceImpl userDetailsService;
+    private final Cache<String, UserDetails> cache;
+
+    public UserDetailsCache(
+            UserDetailsServiceImpl userDetailsService, //
+            MeterRegistry meterRegistry, //
+            @Value("${app.security.user-cache.max-size}") long maxSize, //
+            @Value("${app.security.user-cache.ttl-seconds}") long ttlSeconds) {
+
+        this.userDetailsService = userDetailsService;
+
+        // @formatter:off
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        // @formatter:on
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public UserDetails get(String username) {
+        return cache.get(username, userDetailsService::loadUserByUsername);
+    }
+
+    public void evict(String username) {
+        if (username == null) {
+            return;
+        }
+
+        cache.invalidate(username);
+
+        // A concurrent request may reload the old row before the writer commits
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(username);
+                }
+            });
+        }
+    }
+
+}
@@ -1,7 +1,10 @@
 package it.andrea.start.security.service;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -11,7 +14,9 @@ import it.andrea.start.models.user.User;
 import it.andrea.start.repository.user.UserRepository;
 
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(UserDetailsServiceImpl.class);
 
     private final UserRepository userRepository;
 
@@ -29,6 +34,25 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         return new JWTokenUserDetails.Builder()
                 .username(user.getUsername())
                 .password(user.getPassword())
+                .roleMask(user.getRoleMask())
+                .accountNonExpired(user.isAccountNonExpired())
+                .accountNonLocked(user.isAccountNonLocked())
+                .enabled(user.isEnabled())
+                .build();
+        // @formatter:on
+    }
+
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        // Re-hash with the current algorithm/cost: the password is unchanged, so issued tokens stay valid
+        userRepository.updatePasswordHash(user.getUsername(), newPassword);
+        LOG.info("Hash della password aggiornato per l'utente {}", user.getUsername());
+
+        // @formatter:off
+        return new JWTokenUserDetails.Builder()
+                .username(user.getUsername())
+                .password(newPassword)
                 .authorities(user.getAuthorities())
                 .accountNonExpired(user.isAccountNonExpired())
                 .accountNonLocked(user.isAccountNonLocked())
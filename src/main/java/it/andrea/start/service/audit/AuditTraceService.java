@@ -1,6 +1,8 @@
 package it.andrea.start.service.audit;
 
 import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -19,4 +21,8 @@ public interface AuditTraceService {
 
     int deleteAuditTrace(Instant instant);
 
+    List<Long> findAuditTraceIdsBefore(Instant instant, long afterId, int limit);
+
+    int deleteAuditTraces(Collection<Long> ids);
+
 }
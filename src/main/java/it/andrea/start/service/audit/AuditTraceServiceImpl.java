@@ -1,7 +1,10 @@
 package it.andrea.start.service.audit;
 
 import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -54,4 +57,16 @@ public class AuditTraceServiceImpl implements AuditTraceService {
         return auditTraceRepository.deleteRows(instant);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<Long> findAuditTraceIdsBefore(Instant instant, long afterId, int limit) {
+        return auditTraceRepository.findIdsBefore(instant, afterId, Limit.of(limit));
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public int deleteAuditTraces(Collection<Long> ids) {
+        return auditTraceRepository.deleteRowsByIds(ids);
+    }
+
 }
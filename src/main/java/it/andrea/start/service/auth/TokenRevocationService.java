@@ -0,0 +1,7 @@
+package it.andrea.start.service.auth;
+
+public interface TokenRevocationService {
+
+    void revoke(String token);
+
+}
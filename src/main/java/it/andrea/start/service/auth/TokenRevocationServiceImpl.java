@@ -0,0 +1,53 @@
+package it.andrea.start.service.auth;
+
+import java.time.Instant;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import it.andrea.start.error.exception.BusinessException;
+import it.andrea.start.error.exception.ErrorCode;
+import it.andrea.start.models.user.RevokedToken;
+import it.andrea.start.repository.user.RevokedTokenRepository;
+import it.andrea.start.security.jwt.JwtUtils;
+import it.andrea.start.security.service.JWTokenUserDetails;
+import it.andrea.start.security.service.RevokedTokenRegistry;
+
+@Service
+@Transactional
+public class TokenRevocationServiceImpl implements TokenRevocationService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TokenRevocationServiceImpl.class);
+
+    private final JwtUtils jwtUtils;
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final RevokedTokenRegistry revokedTokenRegistry;
+
+    public TokenRevocationServiceImpl(JwtUtils jwtUtils, RevokedTokenRepository revokedTokenRepository, RevokedTokenRegistry revokedTokenRegistry) {
+        this.jwtUtils = jwtUtils;
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.revokedTokenRegistry = revokedTokenRegistry;
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void revoke(String token) {
+        JWTokenUserDetails tokenDetails = jwtUtils.validateAndParseToken(token) //
+                .filter(details -> details.getTokenId() != null && details.getExpiresAt() != null) //
+                .orElseThrow(() -> new BusinessException(ErrorCode.AUTHORIZE_TOKEN_INVALID));
+
+        RevokedToken revokedToken = new RevokedToken();
+        revokedToken.setTokenId(tokenDetails.getTokenId());
+        revokedToken.setUsername(tokenDetails.getUsername());
+        revokedToken.setRevokedAt(Instant.now());
+        revokedToken.setExpiresAt(tokenDetails.getExpiresAt());
+
+        revokedTokenRepository.save(revokedToken);
+        revokedTokenRegistry.revoke(revokedToken);
+
+        LOG.info("Token {} dell'utente {} revocato", revokedToken.getTokenId(), revokedToken.getUsername());
+    }
+
+}
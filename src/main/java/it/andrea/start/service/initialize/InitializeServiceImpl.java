@@ -4,7 +4,6 @@ import java.io.File;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.HashSet;
-import java.util.Optional;
 import java.util.Set;
 
 import javax.xml.parsers.DocumentBuilder;
@@ -27,12 +26,12 @@ import org.xml.sax.SAXException;
 import it.andrea.start.constants.Language;
 import it.andrea.start.constants.RoleType;
 import it.andrea.start.constants.UserStatus;
-import it.andrea.start.error.exception.user.UserRoleNotFoundException;
 import it.andrea.start.models.job.JobInfo;
 import it.andrea.start.models.user.User;
 import it.andrea.start.models.user.UserRole;
 import it.andrea.start.repository.JobInfoRepository;
 import it.andrea.start.repository.user.UserRepository;
+import it.andrea.start.repository.user.UserRoleRegistry;
 import it.andrea.start.repository.user.UserRoleRepository;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
@@ -54,6 +53,7 @@ public class InitializeServiceImpl {
     private final JobInfoRepository jobInfoRepository;
     private final UserRepository userRepository;
     private final UserRoleRepository userRoleRepository;
+    private final UserRoleRegistry userRoleRegistry;
 
     @Value("${app.initialize.file.path}")
     private String appPath;
@@ -61,6 +61,7 @@ public class InitializeServiceImpl {
     @PostConstruct
     public void executeStartOperation() {
         initRoles();
+        userRoleRegistry.load();
         loadJobsUsersFromXML(appPath + USERS_FILE);
         loadJobsFromXML(appPath + JOBS_FILE);
     }
@@ -136,10 +137,9 @@ public class InitializeServiceImpl {
                 if (roleName != null && !roleName.trim().isEmpty()) {
                     try {
                         RoleType roleType = RoleType.valueOf(roleName.trim().toUpperCase());
-                        Optional<UserRole> userRoleOpt = userRoleRepository.findByRole(roleType);
-                        userRoleOpt.ifPresentOrElse( //
+                        userRoleRegistry.find(roleType).ifPresentOrElse( //
                                 userRoles::add, //
-                                () -> new UserRoleNotFoundException(roleName));
+                                () -> LOG.warn("Ruolo '{}' non presente nel database per l'utente '{}'. Ignorato.", roleName.trim(), user.getUsername()));
                     } catch (IllegalArgumentException e) {
                         LOG.warn("Valore ruolo non valido '{}' per l'utente '{}'. Ignorato.", roleName.trim(), user.getUsername());
                     }
@@ -210,6 +210,8 @@ public class InitializeServiceImpl {
         jobInfo.setRepeatIntervalMillis(parseLongOrNull(getTagValueOrNull("repeatIntervalMillis", element)));
         jobInfo.setInitialDelayMillis(parseLongOrNull(getTagValueOrNull("initialDelayMillis", element)));
         jobInfo.setRepeatCount(parseIntOrNull(getTagValueOrNull("repeatCount", element)));
+        jobInfo.setPriority(parseIntOrNull(getTagValueOrNull("priority", element)));
+        jobInfo.setShardCount(parseIntOrNull(getTagValueOrNull("shardCount", element)));
 
         jobInfo.setCronJob(parseBooleanOrDefault(getTagValueOrNull("cronJob", element), false));
         jobInfo.setActive(parseBooleanOrDefault(getTagValueOrNull("isActive", element), false));
@@ -0,0 +1,80 @@
+package it.andrea.start.service.job;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import it.andrea.start.models.job.JobExecution;
+import it.andrea.start.repository.job.JobExecutionBatchRepository;
+import jakarta.annotation.PreDestroy;
+
+@Component
+public class JobExecutionRecorder {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JobExecutionRecorder.class);
+
+    private final JobExecutionBatchRepository jobExecutionBatchRepository;
+    private final BlockingQueue<JobExecution> queue;
+    private final int batchSize;
+    private final ScheduledExecutorService flusher;
+    private final Counter dropped;
+
+    public JobExecutionRecorder(
+            JobExecutionBatchRepository jobExecutionBatchRepository, //
+            MeterRegistry meterRegistry, //
+            @Value("${app.job-execution.queue-capacity}") int queueCapacity, //
+            @Value("${app.job-execution.batch-size}") int batchSize, //
+            @Value("${app.job-execution.flush-millis}") long flushMillis) {
+
+        this.jobExecutionBatchRepository = jobExecutionBatchRepository;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("job-history-"));
+        this.flusher.scheduleWithFixedDelay(this::flush, flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+
+        Gauge.builder("quartz.job.history.queue", queue, BlockingQueue::size).register(meterRegistry);
+        this.dropped = Counter.builder("quartz.job.history.dropped").register(meterRegistry);
+    }
+
+    // Called on the Quartz worker thread: never blocks, the row is dropped when the queue is full
+    public void record(JobExecution execution) {
+        if (!queue.offer(execution)) {
+            dropped.increment();
+            LOG.warn("Coda storico job piena, esecuzione di {}/{} non registrata", execution.getJobGroup(), execution.getJobName());
+        }
+    }
+
+    void flush() {
+        List<JobExecution> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            try {
+                jobExecutionBatchRepository.insertAll(batch);
+            } catch (RuntimeException e) {
+                dropped.increment(batch.size());
+                LOG.error("Errore durante la scrittura di {} esecuzioni job: {}", batch.size(), e.getMessage(), e);
+            }
+            batch.clear();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(5, TimeUnit.SECONDS);
+        flush();
+    }
+
+}
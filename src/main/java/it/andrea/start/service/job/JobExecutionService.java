@@ -0,0 +1,28 @@
+package it.andrea.start.service.job;
+
+import java.time.Duration;
+import java.util.Collection;
+
+import it.andrea.start.dto.job.JobExecutionDTO;
+import it.andrea.start.dto.job.JobExecutionStatsDTO;
+import it.andrea.start.dto.job.ShardRunDTO;
+
+public interface JobExecutionService {
+
+    Collection<JobExecutionDTO> listRecent(String jobName, String jobGroup, int limit);
+
+    Collection<JobExecutionStatsDTO> stats(Duration window);
+
+    int purgeExpired(int retentionDays);
+
+    void startShardRun(String runId, String jobName, String jobGroup, int shardCount);
+
+    void recordShardResults(String runId, int completed, int failed);
+
+    int failStaleShardRuns();
+
+    int failOpenShardRuns(String jobName, String jobGroup);
+
+    Collection<ShardRunDTO> listShardRuns(String jobName, String jobGroup, int limit);
+
+}
@@ -0,0 +1,166 @@
+package it.andrea.start.service.job;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import it.andrea.start.constants.ShardRunStatus;
+import it.andrea.start.dto.job.JobExecutionDTO;
+import it.andrea.start.dto.job.JobExecutionStatsDTO;
+import it.andrea.start.dto.job.ShardRunDTO;
+import it.andrea.start.mappers.job.JobExecutionMapper;
+import it.andrea.start.models.job.ShardRun;
+import it.andrea.start.repository.job.JobExecutionRepository;
+import it.andrea.start.repository.job.JobExecutionStats;
+import it.andrea.start.repository.job.ShardRunRepository;
+
+@Service
+@Transactional
+public class JobExecutionServiceImpl implements JobExecutionService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JobExecutionServiceImpl.class);
+
+    private static final int MAX_RECENT = 500;
+
+    private final JobExecutionRepository jobExecutionRepository;
+    private final JobExecutionMapper jobExecutionMapper;
+    private final ShardRunRepository shardRunRepository;
+    private final Duration shardRunTimeout;
+
+    public JobExecutionServiceImpl(
+            JobExecutionRepository jobExecutionRepository, //
+            JobExecutionMapper jobExecutionMapper, //
+            ShardRunRepository shardRunRepository, //
+            @Value("${app.job-execution.shard-run-timeout}") Duration shardRunTimeout) {
+
+        this.jobExecutionRepository = jobExecutionRepository;
+        this.jobExecutionMapper = jobExecutionMapper;
+        this.shardRunRepository = shardRunRepository;
+        this.shardRunTimeout = shardRunTimeout;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Collection<JobExecutionDTO> listRecent(String jobName, String jobGroup, int limit) {
+        int size = Math.clamp(limit, 1, MAX_RECENT);
+        return jobExecutionMapper.toDtos(jobExecutionRepository.findByJobGroupAndJobNameOrderByFiredAtDesc(jobGroup, jobName, Limit.of(size)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Collection<JobExecutionStatsDTO> stats(Duration window) {
+        // @formatter:off
+        return jobExecutionRepository.findStatsSince(Instant.now().minus(window))
+                .stream()
+                .map(JobExecutionServiceImpl::toStatsDto)
+                .toList();
+        // @formatter:on
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public int purgeExpired(int retentionDays) {
+        Instant deleteBefore = Instant.now().minus(retentionDays, ChronoUnit.DAYS);
+        int deleted = jobExecutionRepository.deleteRows(deleteBefore);
+        int deletedShardRuns = shardRunRepository.deleteRows(deleteBefore);
+        LOG.info("Cancellate {} esecuzioni job e {} esecuzioni a shard precedenti a {}", deleted, deletedShardRuns, deleteBefore);
+        return deleted;
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void startShardRun(String runId, String jobName, String jobGroup, int shardCount) {
+        ShardRun shardRun = new ShardRun();
+        shardRun.setId(runId);
+        shardRun.setJobName(jobName);
+        shardRun.setJobGroup(jobGroup);
+        shardRun.setShardCount(shardCount);
+        shardRun.setStatus(ShardRunStatus.RUNNING);
+        shardRun.setStartedAt(Instant.now());
+        shardRunRepository.save(shardRun);
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void recordShardResults(String runId, int completed, int failed) {
+        if (shardRunRepository.incrementShards(runId, completed, failed) == 0) {
+            LOG.warn("Esecuzione a shard {} non trovata, esito dello shard ignorato", runId);
+            return;
+        }
+
+        if (shardRunRepository.finishIfComplete(runId, Instant.now(), ShardRunStatus.RUNNING, ShardRunStatus.COMPLETED, ShardRunStatus.FAILED) > 0) {
+            shardRunRepository.findById(runId).ifPresent(shardRun -> LOG.info("Esecuzione a shard {} del job {}/{} terminata con stato {} ({} completati, {} falliti)",
+                    runId, shardRun.getJobGroup(), shardRun.getJobName(), shardRun.getStatus(), shardRun.getCompleted(), shardRun.getFailed()));
+        }
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public int failStaleShardRuns() {
+        Instant startedBefore = Instant.now().minus(shardRunTimeout);
+        int failed = shardRunRepository.failStale(startedBefore, Instant.now(), ShardRunStatus.RUNNING, ShardRunStatus.FAILED);
+        if (failed > 0) {
+            LOG.warn("{} esecuzioni a shard avviate prima di {} chiuse come fallite per timeout", failed, startedBefore);
+        }
+        return failed;
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public int failOpenShardRuns(String jobName, String jobGroup) {
+        int failed = shardRunRepository.failRunning(jobGroup, jobName, Instant.now(), ShardRunStatus.RUNNING, ShardRunStatus.FAILED);
+        if (failed > 0) {
+            LOG.warn("{} esecuzioni a shard del job {}/{} chiuse come fallite: gli shard sono stati rimossi dallo scheduler", failed, jobGroup, jobName);
+        }
+        return failed;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Collection<ShardRunDTO> listShardRuns(String jobName, String jobGroup, int limit) {
+        int size = Math.clamp(limit, 1, MAX_RECENT);
+        // @formatter:off
+        return shardRunRepository.findByJobGroupAndJobNameOrderByStartedAtDesc(jobGroup, jobName, Limit.of(size))
+                .stream()
+                .map(JobExecutionServiceImpl::toShardRunDto)
+                .toList();
+        // @formatter:on
+    }
+
+    private static ShardRunDTO toShardRunDto(ShardRun shardRun) {
+        // @formatter:off
+        return new ShardRunDTO(
+                shardRun.getId(),
+                shardRun.getJobName(),
+                shardRun.getJobGroup(),
+                shardRun.getShardCount(),
+                shardRun.getCompleted(),
+                shardRun.getFailed(),
+                shardRun.getStatus(),
+                shardRun.getStartedAt(),
+                shardRun.getFinishedAt());
+        // @formatter:on
+    }
+
+    private static JobExecutionStatsDTO toStatsDto(JobExecutionStats stats) {
+        // @formatter:off
+        return new JobExecutionStatsDTO(
+                stats.getJobName(),
+                stats.getJobGroup(),
+                stats.getExecutions(),
+                stats.getFailures(),
+                Math.round(stats.getP50()),
+                Math.round(stats.getP95()),
+                stats.getMaxMs());
+        // @formatter:on
+    }
+
+}
@@ -0,0 +1,44 @@
+package it.andrea.start.service.job;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+
+import it.andrea.start.models.job.JobInfo;
+
+final class JobFingerprint {
+
+    static final String JOB_DATA_KEY = "jobFingerprint";
+
+    private JobFingerprint() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    static String of(JobInfo jobInfo, Map<String, Object> data) {
+        // @formatter:off
+        StringJoiner definition = new StringJoiner("\u0000")
+                .add(jobInfo.getJobClass())
+                .add(String.valueOf(jobInfo.getDescription()))
+                .add(Boolean.toString(jobInfo.isCronJob()))
+                .add(String.valueOf(jobInfo.getCronExpression()))
+                .add(String.valueOf(jobInfo.getRepeatIntervalMillis()))
+                .add(String.valueOf(jobInfo.getInitialDelayMillis()))
+                .add(String.valueOf(jobInfo.getRepeatCount()))
+                .add(String.valueOf(jobInfo.getPriority()))
+                .add(String.valueOf(jobInfo.getShardCount()))
+                .add(new TreeMap<>(data).toString());
+        // @formatter:on
+
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(definition.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+}
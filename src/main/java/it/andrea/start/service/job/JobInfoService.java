@@ -3,6 +3,7 @@ package it.andrea.start.service.job;
 import java.util.Collection;
 
 import it.andrea.start.dto.JobInfoDTO;
+import it.andrea.start.dto.job.JobGroupLimitDTO;
 
 public interface JobInfoService {
 
@@ -22,4 +23,14 @@ public interface JobInfoService {
 
     void startJobNow(String jobName, String jobGroup);
 
+    void interruptJob(String jobName, String jobGroup);
+
+    void updateJobPriority(String jobName, String jobGroup, int priority);
+
+    Collection<JobGroupLimitDTO> listGroupLimits();
+
+    JobGroupLimitDTO updateGroupLimit(String jobGroup, int maxConcurrent);
+
+    void deleteGroupLimit(String jobGroup);
+
 }
\ No newline at end of file
@@ -1,10 +1,16 @@
 package it.andrea.start.service.job;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.quartz.CronExpression;
 import org.quartz.CronScheduleBuilder;
@@ -12,33 +18,49 @@ import org.quartz.Job;
 import org.quartz.JobBuilder;
 import org.quartz.JobDataMap;
 import org.quartz.JobDetail;
+import org.quartz.JobExecutionContext;
 import org.quartz.JobKey;
 import org.quartz.Scheduler;
 import org.quartz.SchedulerException;
 import org.quartz.SimpleScheduleBuilder;
 import org.quartz.Trigger;
+import org.quartz.Trigger.TriggerState;
 import org.quartz.TriggerBuilder;
 import org.quartz.TriggerKey;
+import org.quartz.impl.matchers.GroupMatcher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import it.andrea.start.dto.JobInfoDTO;
+import it.andrea.start.dto.job.JobGroupLimitDTO;
+import it.andrea.start.error.exception.BusinessException;
+import it.andrea.start.error.exception.ErrorCode;
 import it.andrea.start.error.exception.job.JobControlException;
 import it.andrea.start.error.exception.job.JobNotFoundException;
 import it.andrea.start.error.exception.job.JobSchedulingException;
+import it.andrea.start.job.scheduler.JobGroupConcurrencyListener;
+import it.andrea.start.job.shard.ShardFanOutJob;
 import it.andrea.start.mappers.job.JobInfoMapper;
+import it.andrea.start.models.job.JobGroupLimit;
 import it.andrea.start.models.job.JobInfo;
 import it.andrea.start.repository.JobInfoRepository;
+import it.andrea.start.repository.job.JobGroupLimitRepository;
 import jakarta.annotation.PostConstruct;
-import lombok.RequiredArgsConstructor;
 
 @Service
-@RequiredArgsConstructor
 public class JobInfoServiceImpl implements JobInfoService {
 
     private static final Logger LOG = LoggerFactory.getLogger(JobInfoServiceImpl.class);
@@ -47,6 +69,37 @@ public class JobInfoServiceImpl implements JobInfoService {
     private final JobInfoRepository jobInfoRepository;
     private final JobInfoMapper jobInfoMapper;
     private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+    private final JobGroupLimitRepository jobGroupLimitRepository;
+    private final JobGroupConcurrencyListener jobGroupConcurrencyListener;
+    private final JobExecutionService jobExecutionService;
+
+    private final boolean reconcileOnStartup;
+    private final long groupLimitsRefreshMillis;
+
+    public JobInfoServiceImpl(
+            Scheduler scheduler, //
+            JobInfoRepository jobInfoRepository, //
+            JobInfoMapper jobInfoMapper, //
+            ObjectMapper objectMapper, //
+            PlatformTransactionManager transactionManager, //
+            JobGroupLimitRepository jobGroupLimitRepository, //
+            JobGroupConcurrencyListener jobGroupConcurrencyListener, //
+            JobExecutionService jobExecutionService, //
+            @Value("${app.quartz.reconcile-on-startup:true}") boolean reconcileOnStartup, //
+            @Value("${app.quartz.group-limits.refresh-millis}") long groupLimitsRefreshMillis) {
+
+        this.scheduler = scheduler;
+        this.jobInfoRepository = jobInfoRepository;
+        this.jobInfoMapper = jobInfoMapper;
+        this.objectMapper = objectMapper;
+        this.transactionManager = transactionManager;
+        this.jobGroupLimitRepository = jobGroupLimitRepository;
+        this.jobGroupConcurrencyListener = jobGroupConcurrencyListener;
+        this.jobExecutionService = jobExecutionService;
+        this.reconcileOnStartup = reconcileOnStartup;
+        this.groupLimitsRefreshMillis = groupLimitsRefreshMillis;
+    }
 
     @Override
     @Transactional(readOnly = true)
@@ -56,8 +109,14 @@ public class JobInfoServiceImpl implements JobInfoService {
     }
 
     @PostConstruct
-    @Transactional
     public void initializeScheduledJobs() {
+        jobGroupConcurrencyListener.setLimits(loadGroupLimits());
+
+        if (reconcileOnStartup) {
+            new TransactionTemplate(transactionManager).executeWithoutResult(this::reconcileScheduledJobs);
+            return;
+        }
+
         LOG.info("Avvio inizializzazione Job Quartz...");
         List<JobInfo> activeJobs = jobInfoRepository.findByIsActiveTrue();
         LOG.info("Trovati {} job attivi nel database da schedulare/verificare.", activeJobs.size());
@@ -76,6 +135,69 @@ public class JobInfoServiceImpl implements JobInfoService {
         LOG.info("Inizializzazione Job Quartz completata. Schedulati/Verificati: {}, Errori: {}", scheduledCount, errorCount);
     }
 
+    private void reconcileScheduledJobs(TransactionStatus status) {
+        LOG.info("Avvio riconciliazione Job Quartz...");
+        List<JobInfo> jobs = jobInfoRepository.findAll();
+        Map<JobDetail, Set<? extends Trigger>> changed = new LinkedHashMap<>();
+        int unchangedCount = 0;
+        int removedCount = 0;
+        int errorCount = 0;
+
+        for (JobInfo jobInfo : jobs) {
+            JobKey jobKey = JobKey.jobKey(jobInfo.getJobName(), jobInfo.getJobGroup());
+            try {
+                JobDetail existing = scheduler.getJobDetail(jobKey);
+                if (!jobInfo.isActive()) {
+                    if (existing != null && scheduler.deleteJob(jobKey)) {
+                        deleteShardWorkers(jobKey);
+                        removedCount++;
+                    }
+                    continue;
+                }
+
+                JobDetail jobDetail = buildJobDetail(jobInfo, jobKey);
+                Trigger trigger = buildTrigger(jobInfo, jobKey);
+                if (existing != null && jobDetail.getJobDataMap().getString(JobFingerprint.JOB_DATA_KEY).equals(existing.getJobDataMap().getString(JobFingerprint.JOB_DATA_KEY))
+                        && hasHealthyTrigger(jobKey, trigger.getKey())) {
+                    LOG.debug("Job {} invariato, schedulazione esistente mantenuta.", jobKey);
+                    unchangedCount++;
+                    continue;
+                }
+
+                changed.put(jobDetail, Set.of(trigger));
+                deleteShardWorkers(jobKey);
+                for (JobDetail worker : buildShardWorkers(jobInfo, jobKey)) {
+                    changed.put(worker, Set.of());
+                }
+            } catch (Exception e) {
+                errorCount++;
+                LOG.error("Errore durante la riconciliazione del job {}: {}", jobKey, e.getMessage(), e);
+            }
+        }
+
+        if (!changed.isEmpty()) {
+            try {
+                scheduler.scheduleJobs(changed, true);
+            } catch (SchedulerException e) {
+                LOG.error("Errore durante la schedulazione dei {} job modificati, riconciliazione annullata: {}", changed.size(), e.getMessage(), e);
+                status.setRollbackOnly();
+                return;
+            }
+        }
+        LOG.info("Riconciliazione Job Quartz completata. Schedulati: {}, Invariati: {}, Rimossi: {}, Errori: {}", changed.size(), unchangedCount, removedCount, errorCount);
+    }
+
+    // Jobs are stored durably and outlive their trigger: an unchanged job is kept only while its trigger can still fire
+    private boolean hasHealthyTrigger(JobKey jobKey, TriggerKey triggerKey) throws SchedulerException {
+        for (Trigger existing : scheduler.getTriggersOfJob(jobKey)) {
+            if (existing.getKey().equals(triggerKey)) {
+                return scheduler.getTriggerState(triggerKey) != TriggerState.ERROR;
+            }
+        }
+        LOG.warn("Trigger {} del job {} mancante, verrà ricreato.", triggerKey, jobKey);
+        return false;
+    }
+
     @Override
     @Transactional(rollbackFor = Exception.class)
     public void scheduleNewJob(String jobName, String jobGroup) {
@@ -225,6 +347,102 @@ public class JobInfoServiceImpl implements JobInfoService {
         }
     }
 
+    @Override
+    public void interruptJob(String jobName, String jobGroup) {
+        JobKey jobKey = JobKey.jobKey(jobName, jobGroup);
+        LOG.info("Tentativo di interrompere le esecuzioni in corso del job: {}", jobKey);
+        try {
+            boolean interrupted = scheduler.interrupt(jobKey);
+            if (interrupted) {
+                LOG.info("Richiesta di interruzione inviata al job {}.", jobKey);
+            } else {
+                LOG.info("Nessuna esecuzione in corso da interrompere per il job {}.", jobKey);
+            }
+        } catch (SchedulerException e) {
+            LOG.error("Errore durante l'interruzione del job {}: {}", jobKey, e.getMessage(), e);
+            throw new JobControlException(jobName, jobGroup);
+        }
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void updateJobPriority(String jobName, String jobGroup, int priority) {
+        LOG.info("Aggiornamento priorità del job {}/{} a {}", jobGroup, jobName, priority);
+        JobInfo jobInfo = findJobInfoOrThrow(jobName, jobGroup);
+        jobInfo.setPriority(priority);
+        jobInfoRepository.save(jobInfo);
+
+        if (jobInfo.isActive()) {
+            try {
+                scheduleOrUpdateJobInternal(jobInfo);
+            } catch (Exception e) {
+                LOG.error("Errore durante l'aggiornamento della priorità del job {}/{}: {}", jobGroup, jobName, e.getMessage(), e);
+                throw new JobSchedulingException(jobGroup, jobName);
+            }
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Collection<JobGroupLimitDTO> listGroupLimits() {
+        // @formatter:off
+        return jobGroupLimitRepository.findAll()
+                .stream()
+                .map(limit -> new JobGroupLimitDTO(limit.getJobGroup(), limit.getMaxConcurrent(), jobGroupConcurrencyListener.getRunning(limit.getJobGroup())))
+                .toList();
+        // @formatter:on
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public JobGroupLimitDTO updateGroupLimit(String jobGroup, int maxConcurrent) {
+        if (maxConcurrent < 1) {
+            throw new BusinessException(ErrorCode.JOB_GROUP_LIMIT_INVALID, jobGroup);
+        }
+
+        JobGroupLimit limit = jobGroupLimitRepository.findById(jobGroup).orElseGet(JobGroupLimit::new);
+        limit.setJobGroup(jobGroup);
+        limit.setMaxConcurrent(maxConcurrent);
+        jobGroupLimitRepository.save(limit);
+        applyGroupLimitAfterCommit(jobGroup, maxConcurrent);
+        LOG.info("Limite di concorrenza del gruppo {} impostato a {}", jobGroup, maxConcurrent);
+
+        return new JobGroupLimitDTO(jobGroup, maxConcurrent, jobGroupConcurrencyListener.getRunning(jobGroup));
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void deleteGroupLimit(String jobGroup) {
+        jobGroupLimitRepository.deleteById(jobGroup);
+        applyGroupLimitAfterCommit(jobGroup, null);
+        LOG.info("Limite di concorrenza del gruppo {} rimosso", jobGroup);
+    }
+
+    // Changes made through another node reach this one only through the database
+    @Scheduled(fixedDelayString = "${app.quartz.group-limits.refresh-millis}", initialDelayString = "${app.quartz.group-limits.refresh-millis}")
+    public void refreshGroupLimits() {
+        try {
+            jobGroupConcurrencyListener.setLimits(loadGroupLimits());
+            Set<String> executing = scheduler.getCurrentlyExecutingJobs().stream().map(JobExecutionContext::getFireInstanceId).collect(Collectors.toSet());
+            jobGroupConcurrencyListener.releaseAbandonedPermits(executing, Duration.ofMillis(groupLimitsRefreshMillis));
+        } catch (SchedulerException | DataAccessException e) {
+            LOG.error("Errore durante l'aggiornamento dei limiti di concorrenza dei gruppi: {}", e.getMessage(), e);
+        }
+    }
+
+    private Map<String, Integer> loadGroupLimits() {
+        return jobGroupLimitRepository.findAll().stream().collect(Collectors.toMap(JobGroupLimit::getJobGroup, JobGroupLimit::getMaxConcurrent));
+    }
+
+    private void applyGroupLimitAfterCommit(String jobGroup, Integer maxConcurrent) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                jobGroupConcurrencyListener.setLimit(jobGroup, maxConcurrent);
+            }
+        });
+    }
+
     private JobInfo findJobInfoOrThrow(String jobName, String jobGroup) throws JobNotFoundException {
         return jobInfoRepository.findByJobNameAndJobGroup(jobName, jobGroup)
                 .orElseThrow(() -> {
@@ -239,6 +457,7 @@ public class JobInfoServiceImpl implements JobInfoService {
 
         JobDetail jobDetail = buildJobDetail(jobInfo, jobKey);
         Trigger trigger = buildTrigger(jobInfo, jobKey);
+        List<JobDetail> shardWorkers = buildShardWorkers(jobInfo, jobKey);
 
         boolean jobExists = scheduler.checkExists(jobKey);
 
@@ -252,7 +471,12 @@ public class JobInfoServiceImpl implements JobInfoService {
             LOG.info("Schedulazione nuovo job: {}", jobKey);
         }
 
+        deleteShardWorkers(jobKey);
+
         Date scheduledTime = scheduler.scheduleJob(jobDetail, trigger);
+        for (JobDetail worker : shardWorkers) {
+            scheduler.addJob(worker, true);
+        }
         LOG.info("Job {} schedulato/aggiornato nello scheduler. Prossima esecuzione (stimata): {}", jobKey, scheduledTime);
     }
 
@@ -269,20 +493,92 @@ public class JobInfoServiceImpl implements JobInfoService {
             } else {
                 LOG.info("Tentativo di cancellare un job non esistente nello scheduler: {}. Nessuna azione necessaria.", jobKey);
             }
+            deleteShardWorkers(jobKey);
         } catch (SchedulerException e) {
             LOG.error("Errore durante la cancellazione del job {} dallo scheduler: {}", jobKey, e.getMessage(), e);
             throw new JobControlException(jobGroup, jobName);
         }
     }
 
+    private void deleteShardWorkers(JobKey jobKey) throws SchedulerException {
+        boolean deleted = false;
+        for (JobKey candidate : scheduler.getJobKeys(GroupMatcher.jobGroupEquals(jobKey.getGroup()))) {
+            if (ShardFanOutJob.isWorkerOf(jobKey, candidate)) {
+                deleted |= scheduler.deleteJob(candidate);
+                LOG.debug("Shard {} del job {} rimosso dallo scheduler.", candidate, jobKey);
+            }
+        }
+
+        // Deleting a worker drops its pending shard triggers: close the open runs now instead of at the timeout sweep
+        if (deleted) {
+            jobExecutionService.failOpenShardRuns(jobKey.getName(), jobKey.getGroup());
+        }
+    }
+
+    private static boolean isSharded(JobInfo jobInfo) {
+        return jobInfo.getShardCount() != null && jobInfo.getShardCount() > 1;
+    }
+
     private JobDetail buildJobDetail(JobInfo jobInfo, JobKey jobKey) throws ClassNotFoundException {
-        JobDataMap jobDataMap = new JobDataMap();
+        Map<String, Object> data = buildJobData(jobInfo, jobKey);
+
+        JobDataMap jobDataMap = new JobDataMap(data);
+        jobDataMap.put(JobFingerprint.JOB_DATA_KEY, JobFingerprint.of(jobInfo, data));
+
+        Class<? extends Job> jobClass = loadJobClass(jobInfo, jobKey);
+        if (isSharded(jobInfo)) {
+            // The trigger fires the fan-out, the configured class runs in the shard workers
+            jobDataMap.put(ShardFanOutJob.SHARD_COUNT_KEY, jobInfo.getShardCount());
+            jobClass = ShardFanOutJob.class;
+        }
+
+        LOG.debug("Costruzione JobDetail per {} con classe {}", jobKey, jobClass.getName());
+        
+        // @formatter:off
+        return JobBuilder.newJob(jobClass)
+                .withIdentity(jobKey)
+                .withDescription(jobInfo.getDescription())
+                .usingJobData(jobDataMap)
+                .storeDurably()
+                .build();
+        // @formatter:on
+    }
+
+    private List<JobDetail> buildShardWorkers(JobInfo jobInfo, JobKey jobKey) throws ClassNotFoundException {
+        if (!isSharded(jobInfo)) {
+            return List.of();
+        }
+
+        Map<String, Object> data = buildJobData(jobInfo, jobKey);
+        Class<? extends Job> jobClass = loadJobClass(jobInfo, jobKey);
+        int shardCount = jobInfo.getShardCount();
+
+        List<JobDetail> workers = new ArrayList<>(shardCount);
+        for (int shardIndex = 0; shardIndex < shardCount; shardIndex++) {
+            JobDataMap jobDataMap = new JobDataMap(data);
+            jobDataMap.put(ShardFanOutJob.SHARD_INDEX_KEY, shardIndex);
+            jobDataMap.put(ShardFanOutJob.SHARD_COUNT_KEY, shardCount);
+
+            // @formatter:off
+            workers.add(JobBuilder.newJob(jobClass)
+                    .withIdentity(ShardFanOutJob.workerKey(jobKey, shardIndex))
+                    .withDescription(jobInfo.getDescription() + " (shard " + shardIndex + "/" + shardCount + ")")
+                    .usingJobData(jobDataMap)
+                    .storeDurably()
+                    .requestRecovery(true)
+                    .build());
+            // @formatter:on
+        }
+        return workers;
+    }
+
+    private Map<String, Object> buildJobData(JobInfo jobInfo, JobKey jobKey) {
+        Map<String, Object> data = new HashMap<>();
 
         if (jobInfo.getJobDataMapJson() != null && !jobInfo.getJobDataMapJson().isBlank()) {
             try {
-                Map<String, Object> data = objectMapper.readValue(jobInfo.getJobDataMapJson(), new TypeReference<>() {
-                });
-                jobDataMap.putAll(data);
+                data.putAll(objectMapper.readValue(jobInfo.getJobDataMapJson(), new TypeReference<Map<String, Object>>() {
+                }));
                 LOG.debug("JobDataMap popolata per {} da JSON: {}", jobKey, data);
             } catch (Exception e) {
                 LOG.error("ERRORE nel parsing del JSON JobDataMap per {}: {}. JobDataMap potrebbe essere incompleta o vuota. JSON: '{}'",
@@ -292,29 +588,20 @@ public class JobInfoServiceImpl implements JobInfoService {
             LOG.debug("Nessun JobDataMap JSON fornito per {}", jobKey);
         }
 
-        jobDataMap.put("jobName", jobInfo.getJobName());
-        jobDataMap.put("jobGroup", jobInfo.getJobGroup());
+        data.put("jobName", jobInfo.getJobName());
+        data.put("jobGroup", jobInfo.getJobGroup());
+        return data;
+    }
 
-        Class<? extends Job> jobClass;
+    private Class<? extends Job> loadJobClass(JobInfo jobInfo, JobKey jobKey) throws ClassNotFoundException {
         try {
             @SuppressWarnings("unchecked")
             Class<? extends Job> loadedClass = (Class<? extends Job>) Class.forName(jobInfo.getJobClass());
-            jobClass = loadedClass;
+            return loadedClass;
         } catch (ClassNotFoundException e) {
             LOG.error("Classe Job non trovata: '{}' per job {}", jobInfo.getJobClass(), jobKey);
             throw e;
         }
-
-        LOG.debug("Costruzione JobDetail per {} con classe {}", jobKey, jobClass.getName());
-        
-        // @formatter:off
-        return JobBuilder.newJob(jobClass)
-                .withIdentity(jobKey)
-                .withDescription(jobInfo.getDescription())
-                .usingJobData(jobDataMap)
-                .storeDurably()
-                .build();
-        // @formatter:on
     }
 
     private Trigger buildTrigger(JobInfo jobInfo, JobKey jobKey) {
@@ -324,6 +611,7 @@ public class JobInfoServiceImpl implements JobInfoService {
         TriggerBuilder<Trigger> triggerBuilder = TriggerBuilder.newTrigger()
                 .withIdentity(triggerKey)
                 .withDescription(triggerDescription)
+                .withPriority(jobInfo.getPriority() != null ? jobInfo.getPriority() : Trigger.DEFAULT_PRIORITY)
                 .forJob(jobKey);
 
         if (jobInfo.isCronJob()) buildCronJobTrigger(triggerBuilder, jobInfo, jobKey);
@@ -0,0 +1,149 @@
+package it.andrea.start.service.user;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import it.andrea.start.constants.RoleType;
+import it.andrea.start.constants.UserStatus;
+import it.andrea.start.dto.user.UserDTO;
+import it.andrea.start.error.exception.BusinessException;
+import it.andrea.start.error.exception.ErrorCode;
+
+final class UserCsvReader {
+
+    private static final char SEPARATOR = ',';
+    private static final char QUOTE = '"';
+    private static final String ROLE_SEPARATOR = "\\|";
+
+    private static final String USERNAME = "username";
+    private static final String NAME = "name";
+    private static final String EMAIL = "email";
+    private static final String PASSWORD = "password";
+    private static final String USER_STATUS = "userstatus";
+    private static final String ROLES = "roles";
+    private static final String LANGUAGE = "language";
+
+    private static final Set<String> REQUIRED_COLUMNS = Set.of(USERNAME, NAME, EMAIL, PASSWORD, USER_STATUS, ROLES);
+
+    private UserCsvReader() {
+    }
+
+    static List<UserDTO> read(Reader source, int maxRows) {
+        try (BufferedReader reader = new BufferedReader(source)) {
+            String header = reader.readLine();
+            if (header == null) {
+                return List.of();
+            }
+
+            Map<String, Integer> columns = new HashMap<>();
+            List<String> names = split(stripBom(header), 1);
+            for (int i = 0; i < names.size(); i++) {
+                columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+            if (!columns.keySet().containsAll(REQUIRED_COLUMNS)) {
+                throw new BusinessException(ErrorCode.USER_IMPORT_CSV_INVALID, 1);
+            }
+
+            List<UserDTO> users = new ArrayList<>();
+            String line;
+            int lineNumber = 1;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (users.size() == maxRows) {
+                    throw new BusinessException(ErrorCode.USER_IMPORT_TOO_MANY_ROWS, maxRows);
+                }
+                users.add(toUser(split(line, lineNumber), columns, lineNumber));
+            }
+            return users;
+        } catch (IOException e) {
+            throw new BusinessException(ErrorCode.USER_IMPORT_CSV_INVALID, 0);
+        }
+    }
+
+    private static UserDTO toUser(List<String> values, Map<String, Integer> columns, int lineNumber) {
+        UserDTO user = new UserDTO();
+        user.setUsername(value(values, columns, USERNAME));
+        user.setName(value(values, columns, NAME));
+        user.setEmail(value(values, columns, EMAIL));
+        user.setPassword(value(values, columns, PASSWORD));
+        user.setLanguage(value(values, columns, LANGUAGE));
+
+        try {
+            String userStatus = value(values, columns, USER_STATUS);
+            user.setUserStatus(userStatus != null ? UserStatus.valueOf(userStatus.toUpperCase(Locale.ROOT)) : null);
+
+            String roles = value(values, columns, ROLES);
+            // @formatter:off
+            Set<RoleType> roleTypes = roles == null ? Set.of() : Arrays.stream(roles.split(ROLE_SEPARATOR))
+                    .map(String::trim)
+                    .filter(role -> !role.isEmpty())
+                    .map(role -> RoleType.valueOf(role.toUpperCase(Locale.ROOT)))
+                    .collect(Collectors.toSet());
+            // @formatter:on
+            user.setRoles(roleTypes);
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException(ErrorCode.USER_IMPORT_CSV_INVALID, lineNumber);
+        }
+
+        return user;
+    }
+
+    private static String value(List<String> values, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= values.size()) {
+            return null;
+        }
+        String value = values.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static List<String> split(String line, int lineNumber) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == QUOTE && i + 1 < line.length() && line.charAt(i + 1) == QUOTE) {
+                    current.append(QUOTE);
+                    i++;
+                } else if (c == QUOTE) {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == QUOTE) {
+                quoted = true;
+            } else if (c == SEPARATOR) {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new BusinessException(ErrorCode.USER_IMPORT_CSV_INVALID, lineNumber);
+        }
+        values.add(current.toString());
+
+        return values;
+    }
+
+    private static String stripBom(String header) {
+        return !header.isEmpty() && header.charAt(0) == '\uFEFF' ? header.substring(1) : header;
+    }
+
+}
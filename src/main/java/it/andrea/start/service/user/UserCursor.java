@@ -0,0 +1,30 @@
+package it.andrea.start.service.user;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import it.andrea.start.error.exception.BusinessException;
+import it.andrea.start.error.exception.ErrorCode;
+
+record UserCursor(String username, long id) {
+
+    private static final char SEPARATOR = ':';
+
+    String encode() {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString((id + String.valueOf(SEPARATOR) + username).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static UserCursor decode(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(SEPARATOR);
+            if (separator <= 0) {
+                throw new BusinessException(ErrorCode.USER_CURSOR_INVALID);
+            }
+            return new UserCursor(decoded.substring(separator + 1), Long.parseLong(decoded.substring(0, separator)));
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException(ErrorCode.USER_CURSOR_INVALID);
+        }
+    }
+
+}
@@ -0,0 +1,12 @@
+package it.andrea.start.service.user;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import it.andrea.start.constants.ExportFormat;
+
+public interface UserExportService {
+
+    long export(ExportFormat format, OutputStream out) throws IOException;
+
+}
@@ -0,0 +1,141 @@
+package it.andrea.start.service.user;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+
+import it.andrea.start.constants.ExportFormat;
+import it.andrea.start.constants.Language;
+import it.andrea.start.repository.user.UserExportRow;
+import it.andrea.start.repository.user.UserRepository;
+
+@Service
+@Transactional
+public class UserExportServiceImpl implements UserExportService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(UserExportServiceImpl.class);
+
+    private static final String CSV_HEADER = "id,username,name,email,userStatus,roles,language";
+    private static final String ROLE_SEPARATOR = "|";
+    private static final int FLUSH_EVERY = 1000;
+    // Spreadsheets evaluate a cell starting with one of these as a formula
+    private static final String FORMULA_PREFIXES = "=+-@\t\r";
+
+    private static final Language[] LANGUAGES = Language.values();
+
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+
+    public UserExportServiceImpl(UserRepository userRepository, ObjectMapper objectMapper) {
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long export(ExportFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        long count;
+        try (Stream<UserExportRow> rows = userRepository.streamExportRows()) {
+            count = switch (format) {
+                case CSV -> writeCsv(rows, writer);
+                case NDJSON -> writeNdjson(rows, writer);
+            };
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+
+        LOG.info("Esportazione utenti in {} completata: {} righe", format, count);
+        return count;
+    }
+
+    private long writeCsv(Stream<UserExportRow> rows, Writer writer) throws IOException {
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+
+        long[] count = { 0 };
+        rows.forEach(row -> {
+            try {
+                // @formatter:off
+                writer.write(String.join(",",
+                        String.valueOf(row.getId()),
+                        csv(row.getUsername()),
+                        csv(row.getName()),
+                        csv(row.getEmail()),
+                        csv(row.getUserStatus()),
+                        csv(row.getRoles()),
+                        csv(language(row.getLanguageDefault()))));
+                // @formatter:on
+                writer.write('\n');
+                afterRow(++count[0], writer);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return count[0];
+    }
+
+    private long writeNdjson(Stream<UserExportRow> rows, Writer writer) throws IOException {
+        long[] count = { 0 };
+        try (SequenceWriter sequenceWriter = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET).withRootValueSeparator("\n").writeValues(writer)) {
+            rows.forEach(row -> {
+                try {
+                    List<String> roles = row.getRoles() != null ? Arrays.asList(row.getRoles().split("\\" + ROLE_SEPARATOR)) : List.of();
+                    sequenceWriter.write(new ExportedUser(row.getId(), row.getUsername(), row.getName(), row.getEmail(), row.getUserStatus(), roles, language(row.getLanguageDefault())));
+                    afterRow(++count[0], writer);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        if (count[0] > 0) {
+            writer.write('\n');
+        }
+        return count[0];
+    }
+
+    private void afterRow(long count, Writer writer) throws IOException {
+        if (count % FLUSH_EVERY == 0) {
+            // Push the buffered rows to the client while the cursor advances
+            writer.flush();
+        }
+    }
+
+    private static String language(Integer ordinal) {
+        return ordinal != null && ordinal >= 0 && ordinal < LANGUAGES.length ? LANGUAGES[ordinal].getBcp47Tag() : null;
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (!value.isEmpty() && FORMULA_PREFIXES.indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    record ExportedUser(Long id, String username, String name, String email, String userStatus, List<String> roles, String language) {
+    }
+
+}
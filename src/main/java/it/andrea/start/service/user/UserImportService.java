@@ -0,0 +1,16 @@
+package it.andrea.start.service.user;
+
+import java.io.Reader;
+import java.util.List;
+
+import it.andrea.start.dto.user.UserDTO;
+import it.andrea.start.dto.user.UserImportReportDTO;
+import it.andrea.start.security.service.JWTokenUserDetails;
+
+public interface UserImportService {
+
+    UserImportReportDTO importUsers(List<UserDTO> users, JWTokenUserDetails userDetails);
+
+    UserImportReportDTO importCsv(Reader csv, JWTokenUserDetails userDetails);
+
+}
@@ -0,0 +1,304 @@
+package it.andrea.start.service.user;
+
+import java.io.Reader;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+import it.andrea.start.constants.RoleType;
+import it.andrea.start.constants.UserImportStatus;
+import it.andrea.start.dto.user.UserDTO;
+import it.andrea.start.dto.user.UserImportReportDTO;
+import it.andrea.start.dto.user.UserImportRowDTO;
+import it.andrea.start.error.ErrorResponseCache;
+import it.andrea.start.error.exception.ApplicationException;
+import it.andrea.start.error.exception.BusinessException;
+import it.andrea.start.error.exception.ErrorCode;
+import it.andrea.start.error.exception.user.UserAlreadyExistsException;
+import it.andrea.start.mappers.user.UserMapper;
+import it.andrea.start.models.user.User;
+import it.andrea.start.repository.user.UserBatchRepository;
+import it.andrea.start.repository.user.UserRepository;
+import it.andrea.start.security.service.JWTokenUserDetails;
+import it.andrea.start.validator.OnCreate;
+import it.andrea.start.validator.user.UserValidator;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+@Service
+public class UserImportServiceImpl implements UserImportService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(UserImportServiceImpl.class);
+
+    // Keeps IN lists well below the bind parameter limits of the driver
+    private static final int LOOKUP_CHUNK_SIZE = 1000;
+
+    private final PasswordEncoder passwordEncoder;
+    private final UserRepository userRepository;
+    private final UserBatchRepository userBatchRepository;
+    private final UserMapper userMapper;
+    private final UserValidator userValidator;
+    private final Validator validator;
+    private final ErrorResponseCache errorResponseCache;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor hashExecutor;
+    private final int hashThreads;
+    private final int maxRows;
+    private final int batchSize;
+
+    // @formatter:off
+    public UserImportServiceImpl(
+            PasswordEncoder passwordEncoder, //
+            UserRepository userRepository, //
+            UserBatchRepository userBatchRepository, //
+            UserMapper userMapper, //
+            UserValidator userValidator, //
+            Validator validator, //
+            ErrorResponseCache errorResponseCache, //
+            PlatformTransactionManager transactionManager, //
+            MeterRegistry meterRegistry, //
+            @Value("${app.user.import.max-rows}") int maxRows, //
+            @Value("${app.user.import.batch-size}") int batchSize, //
+            @Value("${app.user.import.hash-threads}") int hashThreads) {
+    // @formatter:on
+
+        this.passwordEncoder = passwordEncoder;
+        this.userRepository = userRepository;
+        this.userBatchRepository = userBatchRepository;
+        this.userMapper = userMapper;
+        this.userValidator = userValidator;
+        this.validator = validator;
+        this.errorResponseCache = errorResponseCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxRows = maxRows;
+        this.batchSize = batchSize;
+        this.hashThreads = hashThreads > 0 ? hashThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+        // Bounded so concurrent imports cannot take every core: when the queue is full the caller hashes its own slice
+        // @formatter:off
+        this.hashExecutor = new ThreadPoolExecutor(
+                this.hashThreads,
+                this.hashThreads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(this.hashThreads * 4),
+                new CustomizableThreadFactory("import-hash-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        // @formatter:on
+
+        ExecutorServiceMetrics.monitor(meterRegistry, hashExecutor, "userImportHashExecutor");
+    }
+
+    @Override
+    public UserImportReportDTO importCsv(Reader csv, JWTokenUserDetails userDetails) {
+        return importUsers(UserCsvReader.read(csv, maxRows), userDetails);
+    }
+
+    // Not transactional as a whole: lookups and hashing run without holding a connection,
+    // only the id reservation and the insert share a transaction
+    @Override
+    public UserImportReportDTO importUsers(List<UserDTO> users, JWTokenUserDetails userDetails) {
+        if (users.size() > maxRows) {
+            throw new BusinessException(ErrorCode.USER_IMPORT_TOO_MANY_ROWS, maxRows);
+        }
+
+        Locale locale = LocaleContextHolder.getLocale();
+        boolean isAdmin = userDetails.hasRole(RoleType.ROLE_ADMIN);
+        UserImportRowDTO[] rows = new UserImportRowDTO[users.size()];
+
+        // Row checks and duplicates inside the file, without touching the database
+        List<Integer> candidates = new ArrayList<>(users.size());
+        Set<String> usernames = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        for (int i = 0; i < users.size(); i++) {
+            UserDTO dto = users.get(i);
+            UserImportRowDTO rejection = validateRow(i, dto, isAdmin, locale);
+            if (rejection == null && !usernames.add(dto.getUsername().toUpperCase())) {
+                rejection = reject(i, dto, ErrorCode.USER_USERNAME_ALREADY_USED, locale);
+            }
+            if (rejection == null && !emails.add(normalizeEmail(dto.getEmail()))) {
+                rejection = reject(i, dto, ErrorCode.USER_EMAIL_ALREADY_USED, locale);
+            }
+
+            if (rejection != null) {
+                rows[i] = rejection;
+            } else {
+                candidates.add(i);
+            }
+        }
+
+        // Conflicts with existing users: one IN query per chunk instead of two lookups per row
+        Set<String> existingUsernames = findExisting(usernames, userRepository::findExistingUsernames);
+        Set<String> existingEmails = findExisting(emails, userRepository::findExistingEmails);
+
+        List<Integer> accepted = new ArrayList<>(candidates.size());
+        for (int i : candidates) {
+            UserDTO dto = users.get(i);
+            if (existingUsernames.contains(dto.getUsername().toUpperCase())) {
+                rows[i] = reject(i, dto, ErrorCode.USER_USERNAME_ALREADY_USED, locale);
+            } else if (existingEmails.contains(normalizeEmail(dto.getEmail()))) {
+                rows[i] = reject(i, dto, ErrorCode.USER_EMAIL_ALREADY_USED, locale);
+            } else {
+                accepted.add(i);
+            }
+        }
+
+        // Password hashing dominates the cost of an import
+        List<String> hashes = hashPasswords(accepted.stream().map(i -> users.get(i).getPassword()).toList());
+
+        Instant now = Instant.now();
+        List<User> entities = new ArrayList<>(accepted.size());
+        for (int j = 0; j < accepted.size(); j++) {
+            int i = accepted.get(j);
+            User user = new User();
+            userMapper.toEntity(users.get(i), user);
+            user.setPassword(hashes.get(j));
+            user.setCreatedBy(userDetails.getUsername());
+            user.setUpdatedBy(userDetails.getUsername());
+            user.setCreatedAt(now);
+            user.setUpdatedAt(now);
+            entities.add(user);
+        }
+
+        // The lookups ran outside the transaction: a concurrent creation can still take a username or email.
+        // The batch then rolls back as a whole, the rows that now conflict are rejected and the rest retried once
+        try {
+            insert(entities);
+        } catch (DataIntegrityViolationException e) {
+            LOG.warn("Importazione utenti in conflitto con una creazione concorrente, nuovo tentativo: {}", e.getMostSpecificCause().getMessage());
+            Set<String> takenUsernames = findExisting(entities.stream().map(User::getUsername).toList(), userRepository::findExistingUsernames);
+            Set<String> takenEmails = findExisting(entities.stream().map(user -> normalizeEmail(user.getEmail())).toList(), userRepository::findExistingEmails);
+
+            List<Integer> retained = new ArrayList<>(accepted.size());
+            List<User> retainedEntities = new ArrayList<>(entities.size());
+            for (int j = 0; j < accepted.size(); j++) {
+                int i = accepted.get(j);
+                User user = entities.get(j);
+                if (takenUsernames.contains(user.getUsername())) {
+                    rows[i] = reject(i, users.get(i), ErrorCode.USER_USERNAME_ALREADY_USED, locale);
+                } else if (takenEmails.contains(normalizeEmail(user.getEmail()))) {
+                    rows[i] = reject(i, users.get(i), ErrorCode.USER_EMAIL_ALREADY_USED, locale);
+                } else {
+                    retained.add(i);
+                    retainedEntities.add(user);
+                }
+            }
+            accepted = retained;
+            entities = retainedEntities;
+
+            try {
+                insert(entities);
+            } catch (DataIntegrityViolationException retryException) {
+                throw new UserAlreadyExistsException(entities.getFirst().getUsername());
+            }
+        }
+
+        for (int j = 0; j < accepted.size(); j++) {
+            int i = accepted.get(j);
+            User user = entities.get(j);
+            rows[i] = new UserImportRowDTO(i + 1, user.getUsername(), user.getId(), UserImportStatus.CREATED, null, null);
+        }
+
+        LOG.info("Importazione utenti completata da {}: {} creati, {} scartati", userDetails.getUsername(), entities.size(), users.size() - entities.size());
+
+        return new UserImportReportDTO(users.size(), entities.size(), users.size() - entities.size(), List.of(rows));
+    }
+
+    private void insert(List<User> entities) {
+        if (entities.isEmpty()) {
+            return;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Long> ids = userBatchRepository.nextIds(entities.size());
+            for (int j = 0; j < entities.size(); j++) {
+                entities.get(j).setId(ids.get(j));
+            }
+            userBatchRepository.insertAll(entities, batchSize);
+        });
+    }
+
+    // Mailbox names are case-insensitive in practice: A@x.com and a@x.com are the same user
+    private static String normalizeEmail(String email) {
+        return email != null ? email.toLowerCase(Locale.ROOT) : null;
+    }
+
+    private List<String> hashPasswords(List<String> passwords) {
+        if (passwords.isEmpty()) {
+            return List.of();
+        }
+
+        // One slice per hashing thread keeps the number of queued tasks per import bounded
+        int sliceSize = (passwords.size() + hashThreads - 1) / hashThreads;
+        List<CompletableFuture<List<String>>> slices = new ArrayList<>();
+        for (int from = 0; from < passwords.size(); from += sliceSize) {
+            List<String> slice = passwords.subList(from, Math.min(from + sliceSize, passwords.size()));
+            slices.add(CompletableFuture.supplyAsync(() -> slice.stream().map(passwordEncoder::encode).toList(), hashExecutor));
+        }
+
+        List<String> hashes = new ArrayList<>(passwords.size());
+        for (CompletableFuture<List<String>> slice : slices) {
+            hashes.addAll(slice.join());
+        }
+        return hashes;
+    }
+
+    private UserImportRowDTO validateRow(int index, UserDTO dto, boolean isAdmin, Locale locale) {
+        Set<ConstraintViolation<UserDTO>> violations = validator.validate(dto, OnCreate.class);
+        if (!violations.isEmpty()) {
+            ConstraintViolation<UserDTO> violation = violations.iterator().next();
+            String code = violation.getMessageTemplate().replace("{", "").replace("}", "");
+            return new UserImportRowDTO(index + 1, dto.getUsername(), null, UserImportStatus.REJECTED, code, violation.getMessage());
+        }
+
+        try {
+            userValidator.validateRoles(dto.getRoles(), isAdmin);
+        } catch (ApplicationException e) {
+            return reject(index, dto, e.getErrorCode(), locale);
+        }
+        return null;
+    }
+
+    private UserImportRowDTO reject(int index, UserDTO dto, ErrorCode errorCode, Locale locale) {
+        return new UserImportRowDTO(index + 1, dto.getUsername(), null, UserImportStatus.REJECTED, errorCode.getCode(), errorResponseCache.getMessage(errorCode, locale));
+    }
+
+    private static Set<String> findExisting(Collection<String> values, Function<Collection<String>, List<String>> query) {
+        List<String> all = new ArrayList<>(values);
+        Set<String> existing = new HashSet<>();
+        for (int from = 0; from < all.size(); from += LOOKUP_CHUNK_SIZE) {
+            existing.addAll(query.apply(all.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, all.size()))));
+        }
+        return existing;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashExecutor.shutdownNow();
+    }
+
+}
@@ -1,8 +1,15 @@
 package it.andrea.start.service.user;
 
+import java.util.List;
+import java.util.Set;
+
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import it.andrea.start.constants.RoleType;
+import it.andrea.start.constants.UserStatus;
+import it.andrea.start.dto.CursorSliceDTO;
+import it.andrea.start.dto.user.UserBulkResultDTO;
 import it.andrea.start.dto.user.UserDTO;
 import it.andrea.start.searchcriteria.user.UserSearchCriteria;
 import it.andrea.start.security.service.JWTokenUserDetails;
@@ -13,16 +20,26 @@ public interface UserService {
 
     UserDTO getById(Long id);
 
+    long getVersion(Long id);
+
+    long getMyVersion(JWTokenUserDetails userDetails);
+
     UserDTO whoami(JWTokenUserDetails jWTokenUserDetails);
 
     UserDTO create(UserDTO userDTO, JWTokenUserDetails userDetails);
 
     UserDTO update(UserDTO userDTO, JWTokenUserDetails userDetails);
 
+    UserBulkResultDTO bulkUpdateStatus(List<Long> ids, UserSearchCriteria criteria, UserStatus status, JWTokenUserDetails userDetails);
+
+    UserBulkResultDTO bulkAssignRoles(List<Long> ids, UserSearchCriteria criteria, Set<RoleType> roles, JWTokenUserDetails userDetails);
+
     void deactivate(Long id, JWTokenUserDetails userDetails);
 
     Page<UserDTO> list(UserSearchCriteria criteria, Pageable pageable, JWTokenUserDetails userDetails);
 
+    CursorSliceDTO<UserDTO> scroll(UserSearchCriteria criteria, String cursor, int size, JWTokenUserDetails userDetails);
+
     void changeMyPassword(String newPassword, String repeatPassword, JWTokenUserDetails userDetails);
 
     void changePassword(Long userId, String newPassword, String repeatPassword, JWTokenUserDetails userDetails);
@@ -1,26 +1,49 @@
 package it.andrea.start.service.user;
 
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.StringUtils;
+import org.hibernate.exception.ConstraintViolationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import it.andrea.start.constants.RoleType;
 import it.andrea.start.constants.UserStatus;
+import it.andrea.start.dto.CursorSliceDTO;
+import it.andrea.start.dto.user.UserBulkResultDTO;
 import it.andrea.start.dto.user.UserDTO;
 import it.andrea.start.error.exception.BusinessException;
 import it.andrea.start.error.exception.ErrorCode;
+import it.andrea.start.error.exception.user.UserAlreadyExistsException;
 import it.andrea.start.error.exception.user.UserNotFoundException;
 import it.andrea.start.mappers.user.UserMapper;
 import it.andrea.start.models.user.User;
+import it.andrea.start.models.user.UserRole;
 import it.andrea.start.repository.user.UserRepository;
+import it.andrea.start.repository.user.UserSearchIndex;
 import it.andrea.start.searchcriteria.user.UserSearchCriteria;
 import it.andrea.start.searchcriteria.user.UserSearchSpecification;
 import it.andrea.start.security.service.JWTokenUserDetails;
+import it.andrea.start.security.service.RevokedUserRegistry;
+import it.andrea.start.security.service.UserDetailsCache;
 import it.andrea.start.utils.HelperAuthorization;
+import it.andrea.start.utils.HelperQuery;
 import it.andrea.start.validator.user.UserValidator;
 import lombok.AllArgsConstructor;
 
@@ -29,11 +52,20 @@ import lombok.AllArgsConstructor;
 @AllArgsConstructor
 public class UserServiceImpl implements UserService {
 
+    private static final Logger LOG = LoggerFactory.getLogger(UserServiceImpl.class);
+
+    private static final int MAX_SCROLL_SIZE = 100;
+    private static final int BULK_CHUNK_SIZE = 1000;
+    private static final Set<RoleType> PROTECTED_ROLES = EnumSet.of(RoleType.ROLE_ADMIN, RoleType.ROLE_MANAGER);
+
     private final PasswordEncoder passwordEncoder;
 
     private final UserRepository userRepository;
     private final UserMapper userMapper;
     private final UserValidator userValidator;
+    private final UserDetailsCache userDetailsCache;
+    private final RevokedUserRegistry revokedUserRegistry;
+    private final UserSearchIndex userSearchIndex;
 
     @Override
     @Transactional(readOnly = true)
@@ -53,6 +85,23 @@ public class UserServiceImpl implements UserService {
         return userMapper.toDto(user);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public long getVersion(Long id) {
+        return userRepository.findById(id) //
+                .orElseThrow(() -> new UserNotFoundException(id)) //
+                .getVersion();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long getMyVersion(JWTokenUserDetails userDetails) {
+        String username = userDetails.getUsername();
+        return userRepository.findByUsername(username) //
+                .orElseThrow(() -> new UserNotFoundException(username)) //
+                .getVersion();
+    }
+
     @Override
     @Transactional(readOnly = true)
     public UserDTO whoami(JWTokenUserDetails jWTokenUserDetails) {
@@ -66,20 +115,49 @@ public class UserServiceImpl implements UserService {
     @Override
     @Transactional(readOnly = true)
     public Page<UserDTO> list(UserSearchCriteria criteria, Pageable pageable, JWTokenUserDetails userDetails) {
-        final Page<User> userPage = userRepository.findAll(new UserSearchSpecification(criteria), pageable);
+        String tsQuery = criteria.isRankedSearch() && userSearchIndex.isAvailable() ? HelperQuery.prepareForPrefixTsQuery(criteria.getTextSearch()) : null;
+
+        final Page<User> userPage = tsQuery != null //
+                ? userRepository.findAllRankedWithRoles(criteria, tsQuery, pageable) //
+                : userRepository.findAllWithRoles(new UserSearchSpecification(criteria), pageable);
         return userPage.map(userMapper::toDto);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorSliceDTO<UserDTO> scroll(UserSearchCriteria criteria, String cursor, int size, JWTokenUserDetails userDetails) {
+        int limit = Math.clamp(size, 1, MAX_SCROLL_SIZE);
+        UserCursor after = cursor != null && !cursor.isBlank() ? UserCursor.decode(cursor) : null;
+
+        // One extra row tells whether another slice exists without counting
+        List<User> users = userRepository.findSliceWithRoles(new UserSearchSpecification(criteria), after != null ? after.username() : null, after != null ? after.id() : null, limit + 1);
+
+        boolean hasNext = users.size() > limit;
+        List<User> content = hasNext ? users.subList(0, limit) : users;
+        String nextCursor = null;
+        if (hasNext) {
+            User last = content.get(content.size() - 1);
+            nextCursor = new UserCursor(last.getUsername(), last.getId()).encode();
+        }
+
+        return new CursorSliceDTO<>(content.stream().map(userMapper::toDto).toList(), nextCursor, hasNext);
+    }
+
     @Override
     @Transactional(rollbackFor = Exception.class)
     public UserDTO create(UserDTO userDTO, JWTokenUserDetails userDetails) {
-        userValidator.validateUser(userDTO, HelperAuthorization.hasRole(userDetails.getAuthorities(), RoleType.ROLE_ADMIN));
+        userValidator.validateUser(userDTO, userDetails.hasRole(RoleType.ROLE_ADMIN));
 
         User user = new User();
         userMapper.toEntity(userDTO, user);
         user.setPassword(passwordEncoder.encode(userDTO.getPassword()));
 
-        userRepository.save(user);
+        // The unique constraints settle races between concurrent creations that both passed validation
+        try {
+            userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            throw new UserAlreadyExistsException(isViolationOf(e, User.UK_EMAIL) ? userDTO.getEmail() : userDTO.getUsername());
+        }
 
         return userMapper.toDto(user);
     }
@@ -91,35 +169,91 @@ public class UserServiceImpl implements UserService {
         User user = userRepository.findByUsername(username) //
                 .orElseThrow(() -> new UserNotFoundException(username));
 
+        // If-Match: the entity is already loaded, the version check costs no extra read
+        if (userDTO.getVersion() != null && userDTO.getVersion() != user.getVersion()) {
+            throw new BusinessException(ErrorCode.ERROR_PRECONDITION_FAILED);
+        }
+
         boolean isMyProfile = Objects.equals(user.getUsername(), userDetails.getUsername());
-        boolean isAdmin = HelperAuthorization.hasRole(userDetails.getAuthorities(), RoleType.ROLE_ADMIN);
+        boolean isAdmin = userDetails.hasRole(RoleType.ROLE_ADMIN);
         userValidator.validateUserUpdate(userDTO, user, isAdmin, isMyProfile);
 
+        UserStatus previousStatus = user.getUserStatus();
+        Set<RoleType> previousRoles = user.getRoles().stream().map(UserRole::getRole).collect(Collectors.toSet());
+
         userMapper.toEntity(userDTO, user);
-        userRepository.save(user);
+        if (previousStatus != user.getUserStatus() || !previousRoles.equals(userDTO.getRoles())) {
+            revokeIssuedTokens(user);
+        }
+        // Flush now so that the returned DTO carries the incremented version used as ETag
+        userRepository.saveAndFlush(user);
+        userDetailsCache.evict(user.getUsername());
 
         return this.userMapper.toDto(user);
     }
 
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public UserBulkResultDTO bulkUpdateStatus(List<Long> ids, UserSearchCriteria criteria, UserStatus status, JWTokenUserDetails userDetails) {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        String updatedBy = userDetails.getUsername();
+
+        int affected = 0;
+        for (Specification<User> target : bulkTargets(ids, criteria)) {
+            affected += userRepository.bulkUpdateStatus(target, status, PROTECTED_ROLES, now, updatedBy);
+        }
+        // The revocation instant tags exactly the rows touched by this operation
+        List<String> usernames = affected > 0 ? userRepository.findUsernamesRevokedAt(now) : List.of();
+        usernames.forEach(username -> revokeAndEvict(username, now));
+
+        LOG.info("Aggiornamento massivo stato utenti a {} da {}: {} utenti", status, updatedBy, affected);
+        return new UserBulkResultDTO(requested(ids), affected, usernames);
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public UserBulkResultDTO bulkAssignRoles(List<Long> ids, UserSearchCriteria criteria, Set<RoleType> roles, JWTokenUserDetails userDetails) {
+        if (roles == null || roles.isEmpty()) {
+            throw new BusinessException(ErrorCode.USER_ROLE_NULL);
+        }
+        boolean isAdmin = userDetails.hasRole(RoleType.ROLE_ADMIN);
+        userValidator.validateRoles(roles, isAdmin);
+
+        Set<RoleType> protectedRoles = isAdmin ? EnumSet.of(RoleType.ROLE_ADMIN) : PROTECTED_ROLES;
+        Map<Long, String> targets = new LinkedHashMap<>();
+        for (Specification<User> target : bulkTargets(ids, criteria)) {
+            targets.putAll(userRepository.findBulkTargets(target, protectedRoles));
+        }
+
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        int affected = targets.isEmpty() ? 0 : userRepository.bulkReplaceRoles(targets.keySet(), roles, now, userDetails.getUsername());
+        targets.values().forEach(username -> revokeAndEvict(username, now));
+
+        LOG.info("Assegnazione massiva ruoli {} da {}: {} utenti", roles, userDetails.getUsername(), affected);
+        return new UserBulkResultDTO(requested(ids), affected, List.copyOf(targets.values()));
+    }
+
     @Override
     @Transactional(rollbackFor = Exception.class)
     public void deactivate(Long id, JWTokenUserDetails userDetails) {
         User user = userRepository.findById(id) //
                 .orElseThrow(() -> new UserNotFoundException(id));
 
-        boolean isAdmin = HelperAuthorization.hasRole(user.getRoles(), RoleType.ROLE_ADMIN);
+        boolean isAdmin = HelperAuthorization.hasRole(user.getRoleMask(), RoleType.ROLE_ADMIN);
         if (isAdmin) {
             throw new BusinessException(ErrorCode.USER_ROLE_ADMIN_NOT_DELETE);
         }
 
-        boolean isManager = HelperAuthorization.hasRole(user.getRoles(), RoleType.ROLE_MANAGER);
+        boolean isManager = HelperAuthorization.hasRole(user.getRoleMask(), RoleType.ROLE_MANAGER);
         if (isManager) {
             throw new BusinessException(ErrorCode.USER_ROLE_MANAGER_NOT_DELETE);
         }
 
         user.setUserStatus(UserStatus.DEACTIVATE);
+        revokeIssuedTokens(user);
 
         userRepository.save(user);
+        userDetailsCache.evict(user.getUsername());
     }
 
     @Override
@@ -130,8 +264,10 @@ public class UserServiceImpl implements UserService {
 
         userValidator.checkPassword(newPassword, repeatPassword);
         user.setPassword(passwordEncoder.encode(newPassword));
+        revokeIssuedTokens(user);
 
         userRepository.save(user);
+        userDetailsCache.evict(user.getUsername());
     }
 
     @Override
@@ -144,8 +280,48 @@ public class UserServiceImpl implements UserService {
 
         String passwordCrypt = passwordEncoder.encode(newPassword);
         user.setPassword(passwordCrypt);
+        revokeIssuedTokens(user);
 
         userRepository.save(user);
+        userDetailsCache.evict(user.getUsername());
+    }
+
+    private static List<Specification<User>> bulkTargets(List<Long> ids, UserSearchCriteria criteria) {
+        if (ids != null && !ids.isEmpty()) {
+            List<Long> distinct = ids.stream().filter(Objects::nonNull).distinct().toList();
+            List<Specification<User>> targets = new ArrayList<>();
+            for (int from = 0; from < distinct.size(); from += BULK_CHUNK_SIZE) {
+                List<Long> chunk = distinct.subList(from, Math.min(from + BULK_CHUNK_SIZE, distinct.size()));
+                targets.add((root, query, cb) -> root.get("id").in(chunk));
+            }
+            return targets;
+        }
+
+        // An empty criteria would select every user: refuse it
+        boolean hasFilter = criteria != null && (criteria.getId() != null || StringUtils.isNotBlank(criteria.getUsername()) || StringUtils.isNotBlank(criteria.getTextSearch()) || criteria.getUserStatus() != null);
+        if (!hasFilter) {
+            throw new BusinessException(ErrorCode.USER_BULK_TARGET_REQUIRED);
+        }
+        return List.of(new UserSearchSpecification(criteria));
+    }
+
+    private static Integer requested(List<Long> ids) {
+        return ids != null && !ids.isEmpty() ? (int) ids.stream().filter(Objects::nonNull).distinct().count() : null;
+    }
+
+    private void revokeAndEvict(String username, Instant revokedAt) {
+        revokedUserRegistry.revoke(username, revokedAt);
+        userDetailsCache.evict(username);
+    }
+
+    private static boolean isViolationOf(DataIntegrityViolationException e, String constraint) {
+        return e.getCause() instanceof ConstraintViolationException violation && violation.getConstraintName() != null && violation.getConstraintName().equalsIgnoreCase(constraint);
+    }
+
+    private void revokeIssuedTokens(User user) {
+        Instant now = Instant.now();
+        user.setTokensRevokedAt(now);
+        revokedUserRegistry.revoke(user.getUsername(), now);
     }
 
 }
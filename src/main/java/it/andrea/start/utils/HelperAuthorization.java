@@ -1,23 +1,105 @@
 package it.andrea.start.utils;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 
 import it.andrea.start.constants.RoleType;
+import it.andrea.start.models.user.UserRole;
 
 public class HelperAuthorization {
 
+    private static final RoleType[] ROLES = RoleType.values();
+    private static final int MASK_COUNT = maskCount();
+    private static final Map<String, RoleType> ROLES_BY_NAME = new HashMap<>();
+    private static final long[] GRANTED_MASKS = new long[MASK_COUNT];
+    private static final List<List<GrantedAuthority>> AUTHORITIES = new ArrayList<>(MASK_COUNT);
+
+    static {
+        for (RoleType role : ROLES) {
+            ROLES_BY_NAME.put(role.name(), role);
+        }
+
+        for (int mask = 0; mask < MASK_COUNT; mask++) {
+            long granted = 0;
+            List<GrantedAuthority> authorities = new ArrayList<>();
+            for (RoleType role : ROLES) {
+                if ((mask & role.getBit()) != 0) {
+                    authorities.add(new SimpleGrantedAuthority(role.name()));
+                    granted |= includedMask(role);
+                }
+            }
+            GRANTED_MASKS[mask] = granted;
+            AUTHORITIES.add(List.copyOf(authorities));
+        }
+    }
+
+    private static int maskCount() {
+        long all = 0;
+        for (RoleType role : ROLES) {
+            if (Long.bitCount(role.getBit()) != 1 || (all & role.getBit()) != 0 || role.getBit() > (1L << 16)) {
+                throw new IllegalStateException("Bit non valido o duplicato per il ruolo " + role);
+            }
+            all |= role.getBit();
+        }
+        return (int) Long.highestOneBit(all) << 1;
+    }
+
+    private static long includedMask(RoleType role) {
+        long included = 0;
+        for (RoleType other : ROLES) {
+            if (other.getLevel() <= role.getLevel()) {
+                included |= other.getBit();
+            }
+        }
+        return included;
+    }
+
     private HelperAuthorization() {
         throw new UnsupportedOperationException("Utility class cannot be instantiated");
     }
 
+    public static long roleMask(Collection<? extends GrantedAuthority> authorities) {
+        long mask = 0;
+        for (GrantedAuthority authority : authorities) {
+            if (authority instanceof UserRole userRole) {
+                mask |= userRole.getRole().getBit();
+            } else {
+                RoleType role = ROLES_BY_NAME.get(authority.getAuthority());
+                if (role != null) {
+                    mask |= role.getBit();
+                }
+            }
+        }
+        return mask;
+    }
+
+    public static long grantedMask(long roleMask) {
+        return GRANTED_MASKS[(int) (roleMask & (MASK_COUNT - 1))];
+    }
+
+    public static List<GrantedAuthority> authorities(long roleMask) {
+        return AUTHORITIES.get((int) (roleMask & (MASK_COUNT - 1)));
+    }
+
+    public static Collection<? extends GrantedAuthority> reachableAuthorities(Collection<? extends GrantedAuthority> authorities) {
+        if (authorities == null || authorities.isEmpty()) {
+            return List.of();
+        }
+        return authorities(grantedMask(roleMask(authorities)));
+    }
+
+    public static boolean hasRole(long grantedMask, RoleType role) {
+        return (grantedMask & role.getBit()) != 0;
+    }
+
     public static boolean hasRole(Collection<? extends GrantedAuthority> roles, RoleType role) {
-        // @formatter:off
-        return roles
-                .stream()
-                .anyMatch(userRole -> userRole.getAuthority().equals(role.name()));
-        // @formatter:on
+        return hasRole(roleMask(roles), role);
     }
     
 }
@@ -0,0 +1,46 @@
+package it.andrea.start.utils;
+
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.util.DigestUtils;
+
+public class HelperETag {
+
+    private static final String VERSION_PREFIX = "v";
+    private static final String ANY = "*";
+
+    private HelperETag() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    public static String fromVersion(long version) {
+        return "\"" + VERSION_PREFIX + version + "\"";
+    }
+
+    public static String fromContent(String content) {
+        return fromContent(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String fromContent(byte[] content) {
+        return "\"" + DigestUtils.md5DigestAsHex(content) + "\"";
+    }
+
+    // null when the header is absent or "*"; a tag we did not issue yields -1 so that it never matches.
+    // If-Match uses strong comparison (RFC 9110 13.1.1): a weak tag W/"v1" never matches either
+    public static Long versionFromIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ANY.equals(ifMatch.trim())) {
+            return null;
+        }
+
+        String tag = ifMatch.trim();
+        if (tag.length() < 3 || tag.charAt(0) != '"' || tag.charAt(tag.length() - 1) != '"' || !tag.startsWith(VERSION_PREFIX, 1)) {
+            return -1L;
+        }
+        try {
+            return Long.parseLong(tag.substring(1 + VERSION_PREFIX.length(), tag.length() - 1));
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+
+}
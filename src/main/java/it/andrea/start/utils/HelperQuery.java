@@ -1,5 +1,9 @@
 package it.andrea.start.utils;
 
+import java.util.Arrays;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -7,6 +11,8 @@ public class HelperQuery {
 
     private static final Logger LOG = LoggerFactory.getLogger(HelperQuery.class);
 
+    private static final Pattern TS_QUERY_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}@._-]+");
+
     private HelperQuery() {
         throw new UnsupportedOperationException("Utility class cannot be instantiated");
     }
@@ -19,4 +25,18 @@ public class HelperQuery {
         return "%" + inputString.toUpperCase() + "%";
     }
 
+    public static String prepareForPrefixTsQuery(String inputString) {
+        if (inputString == null) {
+            return null;
+        }
+        // Anything that is not part of a word is dropped, so tsquery operators cannot be injected
+        // @formatter:off
+        String query = Arrays.stream(TS_QUERY_SEPARATOR.split(inputString.toLowerCase()))
+                .filter(term -> !term.isBlank())
+                .map(term -> term + ":*")
+                .collect(Collectors.joining(" & "));
+        // @formatter:on
+        return query.isEmpty() ? null : query;
+    }
+
 }
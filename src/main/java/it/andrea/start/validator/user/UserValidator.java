@@ -11,6 +11,7 @@ import it.andrea.start.error.exception.BusinessException;
 import it.andrea.start.error.exception.ErrorCode;
 import it.andrea.start.error.exception.user.UserAlreadyExistsException;
 import it.andrea.start.models.user.User;
+import it.andrea.start.repository.user.UserConflict;
 import it.andrea.start.repository.user.UserRepository;
 
 @Component
@@ -31,18 +32,19 @@ public class UserValidator {
 
     public void validateUser(UserDTO dto, boolean haveAdminRole) {
         String username = dto.getUsername();
-        userRepository.findByUsername(username.toUpperCase())
-        .ifPresent(user -> {
-            throw new UserAlreadyExistsException(username);
-        });
-        
         String email = dto.getEmail();
-        userRepository.findByEmail(email)
-        .ifPresent(user -> {
+        UserConflict conflict = userRepository.findConflicts(username.toUpperCase(), email, null);
+        if (conflict.isUsernameTaken()) {
+            throw new UserAlreadyExistsException(username);
+        }
+        if (conflict.isEmailTaken()) {
             throw new UserAlreadyExistsException(email);
-        });
+        }
 
-        Collection<RoleType> roles = dto.getRoles();
+        validateRoles(dto.getRoles(), haveAdminRole);
+    }
+
+    public void validateRoles(Collection<RoleType> roles, boolean haveAdminRole) {
         roles.stream()
         .filter(role -> Objects.equals(role, RoleType.ROLE_ADMIN))
         .findFirst()
@@ -61,12 +63,9 @@ public class UserValidator {
 
     public void validateUserUpdate(UserDTO dto, User entity, boolean haveAdminRole, boolean isMyProfile) {
         String email = dto.getEmail();
-
-        userRepository.findByEmail(email)
-        .filter(otherUser -> !otherUser.getId().equals(entity.getId()))
-        .ifPresent(conflictingUser -> {
+        if (userRepository.findConflicts(entity.getUsername(), email, entity.getId()).isEmailTaken()) {
             throw new UserAlreadyExistsException(email);
-        });
+        }
 
         Collection<RoleType> roles = dto.getRoles();
         roles.stream()
@@ -0,0 +1,25 @@
+package it.andrea.start.configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.scheduling.quartz.SchedulerFactoryBean;
+
+import it.andrea.start.service.job.JobExecutionRecorder;
+
+class QuartzConfigTest {
+
+    @Test
+    void schedulerIsDestroyedBeforeJobExecutionRecorder() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerBeanDefinition("quartzScheduler", new RootBeanDefinition(SchedulerFactoryBean.class));
+        beanFactory.registerBeanDefinition("jobExecutionRecorder", new RootBeanDefinition(JobExecutionRecorder.class));
+
+        QuartzConfig.schedulerDependsOnRecorderPostProcessor().postProcessBeanFactory(beanFactory);
+
+        assertThat(beanFactory.getBeanDefinition("quartzScheduler").getDependsOn()).containsExactly("jobExecutionRecorder");
+    }
+
+}
@@ -0,0 +1,34 @@
+package it.andrea.start.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import it.andrea.start.service.language.LanguageServiceImpl;
+
+class LanguageControllerTest {
+
+    @Test
+    void eTagIsTheSameAcrossInstances() throws Exception {
+        // Two instances stand for two nodes, or one node before and after a restart
+        String first = new LanguageController(new LanguageServiceImpl(), new ObjectMapper()).listAvailableLanguages(request(null)).getHeaders().getETag();
+        LanguageController second = new LanguageController(new LanguageServiceImpl(), new ObjectMapper());
+
+        assertThat(second.listAvailableLanguages(request(null)).getHeaders().getETag()).isEqualTo(first);
+        assertThat(second.listAvailableLanguages(request(first))).isNull();
+    }
+
+    private static ServletWebRequest request(String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/language/available");
+        if (ifNoneMatch != null) {
+            request.addHeader("If-None-Match", ifNoneMatch);
+        }
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
+
+}
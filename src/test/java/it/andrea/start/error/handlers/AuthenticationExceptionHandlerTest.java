@@ -0,0 +1,48 @@
+package it.andrea.start.error.handlers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.StaticMessageSource;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import it.andrea.start.constants.Language;
+import it.andrea.start.error.ApiError;
+import it.andrea.start.error.ErrorResponseCache;
+import it.andrea.start.error.exception.ErrorCode;
+
+class AuthenticationExceptionHandlerTest {
+
+    private static final ServletWebRequest REQUEST = new ServletWebRequest(new MockHttpServletRequest("POST", "/api/auth/login"));
+
+    @Test
+    void usesTheBundleMessageWhenPresent() throws Exception {
+        StaticMessageSource messageSource = new StaticMessageSource();
+        for (Language language : Language.values()) {
+            messageSource.addMessage(ErrorCode.AUTHENTICATION_FAILED.getCode(), language.getLocale(), "Authentication failed.");
+        }
+        AuthenticationExceptionHandler handler = new AuthenticationExceptionHandler(new ErrorResponseCache(messageSource, new ObjectMapper()));
+
+        ResponseEntity<?> response = handler.handleApplicationException(new BadCredentialsException("Bad credentials"), REQUEST);
+
+        assertThat(new String((byte[]) response.getBody(), StandardCharsets.UTF_8)).doesNotContain("Bad credentials");
+    }
+
+    @Test
+    void fallsBackToTheExceptionMessage() throws Exception {
+        AuthenticationExceptionHandler handler = new AuthenticationExceptionHandler(new ErrorResponseCache(new StaticMessageSource(), new ObjectMapper()));
+
+        ResponseEntity<?> response = handler.handleApplicationException(new BadCredentialsException("Bad credentials"), REQUEST);
+
+        assertThat(response.getStatusCode()).isEqualTo(ErrorCode.AUTHENTICATION_FAILED.getHttpStatus());
+        assertThat(((ApiError) response.getBody()).message()).isEqualTo("Bad credentials");
+    }
+
+}
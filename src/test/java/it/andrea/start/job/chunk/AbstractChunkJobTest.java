@@ -0,0 +1,125 @@
+package it.andrea.start.job.chunk;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.quartz.JobDetail;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobKey;
+
+import it.andrea.start.models.job.JobCheckpoint;
+
+class AbstractChunkJobTest {
+
+    private static final JobKey JOB_KEY = JobKey.jobKey("NumbersJob", "TEST");
+
+    private ChunkJobSupport chunkJobSupport;
+    private JobExecutionContext context;
+
+    @BeforeEach
+    void setUp() {
+        chunkJobSupport = mock(ChunkJobSupport.class);
+        when(chunkJobSupport.chunkSize(any())).thenReturn(10);
+        when(chunkJobSupport.loadCheckpoint(JOB_KEY)).thenReturn(Optional.empty());
+        when(chunkJobSupport.inTransaction(any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get());
+
+        JobDetail jobDetail = mock(JobDetail.class);
+        when(jobDetail.getKey()).thenReturn(JOB_KEY);
+        context = mock(JobExecutionContext.class);
+        when(context.getJobDetail()).thenReturn(jobDetail);
+    }
+
+    @Test
+    void processesAllChunksAndClearsCheckpoint() {
+        NumbersJob job = new NumbersJob(chunkJobSupport, 25, false);
+
+        job.executeInternal(context);
+
+        assertThat(job.chunks).extracting(List::size).containsExactly(10, 10, 5);
+        verify(chunkJobSupport).saveCheckpoint(JOB_KEY, "24", 25);
+        verify(chunkJobSupport).clearCheckpoint(JOB_KEY);
+    }
+
+    @Test
+    void resumesAfterPersistedCheckpoint() {
+        JobCheckpoint checkpoint = new JobCheckpoint();
+        checkpoint.setJobKey(JOB_KEY.toString());
+        checkpoint.setCheckpoint("9");
+        checkpoint.setProcessed(10);
+        checkpoint.setUpdatedAt(Instant.now());
+        when(chunkJobSupport.loadCheckpoint(JOB_KEY)).thenReturn(Optional.of(checkpoint));
+        NumbersJob job = new NumbersJob(chunkJobSupport, 25, false);
+
+        job.executeInternal(context);
+
+        assertThat(job.chunks.get(0)).startsWith(10);
+        verify(chunkJobSupport).saveCheckpoint(JOB_KEY, "24", 25);
+    }
+
+    @Test
+    void interruptStopsAfterCurrentChunkAndKeepsCheckpoint() {
+        NumbersJob job = new NumbersJob(chunkJobSupport, 25, true);
+
+        job.executeInternal(context);
+
+        assertThat(job.chunks).hasSize(1);
+        verify(chunkJobSupport).saveCheckpoint(eq(JOB_KEY), eq("9"), anyLong());
+        verify(chunkJobSupport).recordChunk(eq(JOB_KEY), anyInt(), anyLong());
+        verify(chunkJobSupport, never()).clearCheckpoint(JOB_KEY);
+    }
+
+    private static class NumbersJob extends AbstractChunkJob<Integer, Integer> {
+
+        private final int total;
+        private final boolean interruptAfterFirstChunk;
+        private final List<List<Integer>> chunks = new ArrayList<>();
+
+        NumbersJob(ChunkJobSupport chunkJobSupport, int total, boolean interruptAfterFirstChunk) {
+            super(chunkJobSupport);
+            this.total = total;
+            this.interruptAfterFirstChunk = interruptAfterFirstChunk;
+        }
+
+        @Override
+        protected List<Integer> read(JobExecutionContext context, String checkpoint, int chunkSize) {
+            int from = checkpoint != null ? Integer.parseInt(checkpoint) + 1 : 0;
+            return IntStream.range(from, Math.min(from + chunkSize, total)).boxed().toList();
+        }
+
+        @Override
+        protected Integer process(Integer item) {
+            return item;
+        }
+
+        @Override
+        protected void write(List<Integer> items) {
+            chunks.add(items);
+            if (interruptAfterFirstChunk) {
+                interrupt();
+            }
+        }
+
+        @Override
+        protected String checkpointOf(Integer item) {
+            return item.toString();
+        }
+
+    }
+
+}
@@ -0,0 +1,128 @@
+package it.andrea.start.job.scheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.quartz.JobDataMap;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobKey;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.Trigger;
+import org.quartz.Trigger.CompletedExecutionInstruction;
+import org.quartz.TriggerKey;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class JobGroupConcurrencyListenerTest {
+
+    private final JobGroupConcurrencyListener listener = new JobGroupConcurrencyListener(new SimpleMeterRegistry(), 5000);
+    private final Scheduler scheduler = mock(Scheduler.class);
+
+    @Test
+    void vetoesFiresAboveGroupLimitUntilARunCompletes() {
+        listener.setLimit("MAINTENANCE", 1);
+        Trigger purge = trigger("PurgeJob", "MAINTENANCE", true);
+        JobExecutionContext first = context();
+
+        assertThat(listener.vetoJobExecution(purge, first)).isFalse();
+        assertThat(listener.vetoJobExecution(purge, context())).isTrue();
+        assertThat(listener.getRunning("MAINTENANCE")).isEqualTo(1);
+
+        listener.triggerComplete(purge, first, CompletedExecutionInstruction.NOOP);
+        assertThat(listener.vetoJobExecution(purge, context())).isFalse();
+    }
+
+    @Test
+    void otherGroupsAreNotAffected() {
+        listener.setLimit("MAINTENANCE", 1);
+        listener.vetoJobExecution(trigger("PurgeJob", "MAINTENANCE", true), context());
+
+        assertThat(listener.vetoJobExecution(trigger("NotifyJob", "REALTIME", true), context())).isFalse();
+        assertThat(listener.vetoJobExecution(trigger("NotifyJob", "REALTIME", true), context())).isFalse();
+    }
+
+    @Test
+    void vetoedOneShotTriggerIsRescheduled() throws SchedulerException {
+        listener.setLimit("MAINTENANCE", 1);
+        listener.vetoJobExecution(trigger("PurgeJob", "MAINTENANCE", true), context());
+        Trigger oneShot = trigger("PurgeJob", "MAINTENANCE", false);
+
+        assertThat(listener.vetoJobExecution(oneShot, context())).isTrue();
+
+        ArgumentCaptor<Trigger> retry = ArgumentCaptor.forClass(Trigger.class);
+        verify(scheduler).scheduleJob(retry.capture());
+        assertThat(retry.getValue().getJobKey()).isEqualTo(oneShot.getJobKey());
+        assertThat(retry.getValue().getKey().getName()).startsWith(oneShot.getKey().getName() + JobGroupConcurrencyListener.RETRY_SEPARATOR);
+        assertThat(retry.getValue().getJobDataMap()).containsEntry("runId", "run-1");
+        assertThat(retry.getValue().getStartTime()).isAfter(new Date());
+    }
+
+    @Test
+    void recurringTriggerKeepsASinglePendingRetry() throws SchedulerException {
+        listener.setLimit("MAINTENANCE", 1);
+        listener.vetoJobExecution(trigger("PurgeJob", "MAINTENANCE", true), context());
+        Trigger recurring = trigger("PurgeJob", "MAINTENANCE", true);
+        TriggerKey pendingKey = TriggerKey.triggerKey(recurring.getKey().getName() + JobGroupConcurrencyListener.RETRY_SEPARATOR + "1", "MAINTENANCE");
+        Trigger pending = mock(Trigger.class);
+        when(pending.getKey()).thenReturn(pendingKey);
+        when(scheduler.getTriggersOfJob(recurring.getJobKey())).thenAnswer(invocation -> List.of(pending));
+
+        assertThat(listener.vetoJobExecution(recurring, context())).isTrue();
+        verify(scheduler, never()).scheduleJob(any(Trigger.class));
+    }
+
+    @Test
+    void permitIsReleasedWhenAnotherListenerVetoes() {
+        listener.setLimit("MAINTENANCE", 1);
+        JobExecutionContext first = context();
+        listener.vetoJobExecution(trigger("PurgeJob", "MAINTENANCE", true), first);
+
+        listener.jobExecutionVetoed(first);
+        listener.jobExecutionVetoed(first);
+
+        assertThat(listener.getRunning("MAINTENANCE")).isZero();
+    }
+
+    @Test
+    void abandonedPermitsAreReleased() {
+        JobExecutionContext abandoned = context();
+        JobExecutionContext executing = context();
+        listener.vetoJobExecution(trigger("PurgeJob", "MAINTENANCE", true), abandoned);
+        listener.vetoJobExecution(trigger("PurgeJob", "MAINTENANCE", true), executing);
+
+        assertThat(listener.releaseAbandonedPermits(Set.of(executing.getFireInstanceId()), Duration.ZERO)).isEqualTo(1);
+        assertThat(listener.getRunning("MAINTENANCE")).isEqualTo(1);
+    }
+
+    private static Trigger trigger(String name, String group, boolean mayFireAgain) {
+        Trigger trigger = mock(Trigger.class);
+        when(trigger.getKey()).thenReturn(TriggerKey.triggerKey(name + "Trigger", group));
+        when(trigger.getJobKey()).thenReturn(JobKey.jobKey(name, group));
+        when(trigger.getJobDataMap()).thenReturn(new JobDataMap(Map.of("runId", "run-1")));
+        when(trigger.getPriority()).thenReturn(Trigger.DEFAULT_PRIORITY);
+        when(trigger.mayFireAgain()).thenReturn(mayFireAgain);
+        return trigger;
+    }
+
+    private JobExecutionContext context() {
+        JobExecutionContext context = mock(JobExecutionContext.class);
+        when(context.getFireInstanceId()).thenReturn(UUID.randomUUID().toString());
+        when(context.getScheduler()).thenReturn(scheduler);
+        return context;
+    }
+
+}
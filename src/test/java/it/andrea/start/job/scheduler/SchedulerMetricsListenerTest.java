@@ -0,0 +1,56 @@
+package it.andrea.start.job.scheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobKey;
+import org.quartz.Trigger;
+import org.quartz.TriggerKey;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SchedulerMetricsListenerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SchedulerMetricsListener listener = new SchedulerMetricsListener(meterRegistry);
+
+    @Test
+    void recordsFireDelayPerGroup() {
+        long now = System.currentTimeMillis();
+        JobExecutionContext context = mock(JobExecutionContext.class);
+        when(context.getScheduledFireTime()).thenReturn(new Date(now - 3_000));
+        when(context.getFireTime()).thenReturn(new Date(now - 1_000));
+
+        listener.triggerFired(trigger(), context);
+
+        assertThat(meterRegistry.get("quartz.trigger.acquisition.delay").tag("group", "MAINTENANCE").timer().totalTime(TimeUnit.MILLISECONDS)).isEqualTo(2_000);
+        assertThat(meterRegistry.get("quartz.trigger.fire.delay").tag("group", "MAINTENANCE").timer().totalTime(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(3_000);
+    }
+
+    @Test
+    void countsMisfiresPerJobRegardlessOfTriggerKey() {
+        listener.triggerMisfired(trigger("run-1#shard-0"));
+        listener.triggerMisfired(trigger("run-2#shard-0"));
+
+        assertThat(meterRegistry.get("quartz.trigger.misfires").tag("group", "MAINTENANCE").tag("job", "PurgeJob").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.find("quartz.trigger.misfires").counters()).hasSize(1);
+    }
+
+    private static Trigger trigger() {
+        return trigger("PurgeJob-trigger");
+    }
+
+    private static Trigger trigger(String name) {
+        Trigger trigger = mock(Trigger.class);
+        when(trigger.getJobKey()).thenReturn(JobKey.jobKey("PurgeJob", "MAINTENANCE"));
+        when(trigger.getKey()).thenReturn(TriggerKey.triggerKey(name, "MAINTENANCE"));
+        return trigger;
+    }
+
+}
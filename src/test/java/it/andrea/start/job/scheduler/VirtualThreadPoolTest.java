@@ -0,0 +1,96 @@
+package it.andrea.start.job.scheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.quartz.SchedulerConfigException;
+
+class VirtualThreadPoolTest {
+
+    private VirtualThreadPool pool;
+
+    @BeforeEach
+    void setUp() throws SchedulerConfigException {
+        pool = new VirtualThreadPool();
+        pool.setInstanceName("TestScheduler");
+        pool.setThreadCount(2);
+        pool.initialize();
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown(true);
+    }
+
+    @Test
+    void runsJobsOnVirtualThreadsUpToLimit() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(2);
+        AtomicInteger virtual = new AtomicInteger();
+
+        for (int i = 0; i < 2; i++) {
+            assertThat(pool.runInThread(() -> {
+                if (Thread.currentThread().isVirtual()) {
+                    virtual.incrementAndGet();
+                }
+                started.countDown();
+                await(release);
+            })).isTrue();
+        }
+
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(virtual.get()).isEqualTo(2);
+        assertThat(pool.getRunningCount()).isEqualTo(2);
+        assertThat(VirtualThreadPool.forScheduler("TestScheduler")).containsSame(pool);
+
+        release.countDown();
+        assertThat(pool.blockForAvailableThreads()).isPositive();
+    }
+
+    @Test
+    void countsSchedulerBlockedOnFullPool() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        for (int i = 0; i < 2; i++) {
+            pool.runInThread(() -> await(release));
+        }
+
+        Thread scheduler = Thread.ofPlatform().start(pool::blockForAvailableThreads);
+        for (int i = 0; i < 50 && pool.getWaitingCount() == 0; i++) {
+            Thread.sleep(20);
+        }
+        assertThat(pool.getWaitingCount()).isEqualTo(1);
+
+        release.countDown();
+        scheduler.join(5000);
+        assertThat(pool.getWaitingCount()).isZero();
+    }
+
+    @Test
+    void shutdownBeforeInitializeIsNoop() {
+        new VirtualThreadPool().shutdown(true);
+    }
+
+    @Test
+    void rejectsJobsAfterShutdown() {
+        pool.shutdown(false);
+
+        assertThat(pool.runInThread(() -> {
+        })).isFalse();
+        assertThat(VirtualThreadPool.forScheduler("TestScheduler")).isEmpty();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
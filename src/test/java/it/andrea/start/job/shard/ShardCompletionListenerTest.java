@@ -0,0 +1,56 @@
+package it.andrea.start.job.shard;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.quartz.JobDataMap;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.quartz.Trigger;
+
+import it.andrea.start.service.job.JobExecutionService;
+
+class ShardCompletionListenerTest {
+
+    private final JobExecutionService jobExecutionService = mock(JobExecutionService.class);
+    private final ShardCompletionListener listener = new ShardCompletionListener(jobExecutionService);
+
+    @Test
+    void recordsShardOutcome() {
+        listener.jobWasExecuted(context(Map.of(ShardFanOutJob.SHARD_RUN_KEY, "run-1")), null);
+        listener.jobWasExecuted(context(Map.of(ShardFanOutJob.SHARD_RUN_KEY, "run-1")), new JobExecutionException("boom"));
+
+        verify(jobExecutionService).recordShardResults("run-1", 1, 0);
+        verify(jobExecutionService).recordShardResults("run-1", 0, 1);
+    }
+
+    @Test
+    void vetoedShardIsNotCountedBecauseItIsRequeued() {
+        listener.jobExecutionVetoed(context(Map.of(ShardFanOutJob.SHARD_RUN_KEY, "run-1")));
+
+        verify(jobExecutionService, never()).recordShardResults(anyString(), anyInt(), anyInt());
+    }
+
+    @Test
+    void ignoresJobsOutsideAShardRun() {
+        listener.jobWasExecuted(context(Map.of()), null);
+
+        verify(jobExecutionService, never()).recordShardResults(anyString(), anyInt(), anyInt());
+    }
+
+    private static JobExecutionContext context(Map<String, Object> triggerData) {
+        Trigger trigger = mock(Trigger.class);
+        when(trigger.getJobDataMap()).thenReturn(new JobDataMap(triggerData));
+        JobExecutionContext context = mock(JobExecutionContext.class);
+        when(context.getTrigger()).thenReturn(trigger);
+        return context;
+    }
+
+}
@@ -0,0 +1,78 @@
+package it.andrea.start.job.shard;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.quartz.JobDataMap;
+import org.quartz.JobDetail;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.quartz.JobKey;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.Trigger;
+
+import it.andrea.start.service.job.JobExecutionService;
+
+class ShardFanOutJobTest {
+
+    private static final JobKey JOB_KEY = JobKey.jobKey("PurgeJob", "MAINTENANCE");
+
+    private final JobExecutionService jobExecutionService = mock(JobExecutionService.class);
+    private final Scheduler scheduler = mock(Scheduler.class);
+    private final ShardFanOutJob job = new ShardFanOutJob(jobExecutionService);
+    private JobExecutionContext context;
+
+    @BeforeEach
+    void setUp() {
+        JobDetail jobDetail = mock(JobDetail.class);
+        when(jobDetail.getKey()).thenReturn(JOB_KEY);
+        Trigger trigger = mock(Trigger.class);
+        when(trigger.getPriority()).thenReturn(7);
+        context = mock(JobExecutionContext.class);
+        when(context.getJobDetail()).thenReturn(jobDetail);
+        when(context.getTrigger()).thenReturn(trigger);
+        when(context.getMergedJobDataMap()).thenReturn(new JobDataMap(Map.of(ShardFanOutJob.SHARD_COUNT_KEY, 3)));
+        when(context.getScheduler()).thenReturn(scheduler);
+    }
+
+    @Test
+    void schedulesOneTriggerPerShardWorker() throws Exception {
+        job.executeInternal(context);
+
+        ArgumentCaptor<String> runId = ArgumentCaptor.forClass(String.class);
+        verify(jobExecutionService).startShardRun(runId.capture(), eq("PurgeJob"), eq("MAINTENANCE"), eq(3));
+        ArgumentCaptor<Trigger> triggers = ArgumentCaptor.forClass(Trigger.class);
+        verify(scheduler, times(3)).scheduleJob(triggers.capture());
+
+        List<Trigger> scheduled = triggers.getAllValues();
+        assertThat(scheduled).extracting(Trigger::getJobKey).containsExactly(ShardFanOutJob.workerKey(JOB_KEY, 0), ShardFanOutJob.workerKey(JOB_KEY, 1), ShardFanOutJob.workerKey(JOB_KEY, 2));
+        assertThat(scheduled).allSatisfy(trigger -> {
+            assertThat(trigger.getJobDataMap().getString(ShardFanOutJob.SHARD_RUN_KEY)).isEqualTo(runId.getValue());
+            assertThat(trigger.getPriority()).isEqualTo(7);
+        });
+    }
+
+    @Test
+    void shardsThatCannotBeScheduledAreCountedAsFailed() throws Exception {
+        when(scheduler.scheduleJob(any(Trigger.class))).thenReturn(null).thenThrow(new SchedulerException("store unavailable"));
+
+        assertThatThrownBy(() -> job.executeInternal(context)).isInstanceOf(JobExecutionException.class);
+
+        verify(jobExecutionService).recordShardResults(anyString(), eq(0), eq(2));
+    }
+
+}
@@ -0,0 +1,15 @@
+package it.andrea.start.repository;
+
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import it.andrea.start.models.BaseEntity;
+
+// Found by every @DataJpaTest below this package before StartProjectApplication,
+// whose full Web MVC setup the JPA slice cannot start
+@SpringBootConfiguration
+@EntityScan(basePackageClasses = BaseEntity.class)
+@EnableJpaRepositories(basePackageClasses = RepositoryTestConfiguration.class)
+public class RepositoryTestConfiguration {
+}
@@ -0,0 +1,70 @@
+package it.andrea.start.repository.job;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+
+import it.andrea.start.models.job.JobExecution;
+
+@DataJpaTest
+class JobExecutionRepositoryTest {
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Autowired
+    private JobExecutionRepository jobExecutionRepository;
+
+    @BeforeEach
+    void setUp() {
+        Instant now = Instant.now();
+        for (int i = 1; i <= 100; i++) {
+            testEntityManager.persist(execution("AuditDeleteJob", now.minus(i, ChronoUnit.MINUTES), i * 10L, i % 10 != 0));
+        }
+        testEntityManager.persist(execution("AuditDeleteJob", now.minus(3, ChronoUnit.DAYS), 99_999L, true));
+        testEntityManager.flush();
+        testEntityManager.clear();
+    }
+
+    @Test
+    void statsComputePercentilesInsideWindow() {
+        List<JobExecutionStats> stats = jobExecutionRepository.findStatsSince(Instant.now().minus(1, ChronoUnit.DAYS));
+
+        assertThat(stats).singleElement().satisfies(row -> {
+            assertThat(row.getExecutions()).isEqualTo(100);
+            assertThat(row.getFailures()).isEqualTo(10);
+            assertThat(row.getP50()).isEqualTo(505.0);
+            assertThat(row.getP95()).isEqualTo(950.5);
+            assertThat(row.getMaxMs()).isEqualTo(1000);
+        });
+    }
+
+    @Test
+    void recentRunsAreNewestFirstAndPurgeRespectsRetention() {
+        List<JobExecution> recent = jobExecutionRepository.findByJobGroupAndJobNameOrderByFiredAtDesc("DEFAULT", "AuditDeleteJob", Limit.of(3));
+
+        assertThat(recent).extracting(JobExecution::getDurationMs).containsExactly(10L, 20L, 30L);
+        assertThat(jobExecutionRepository.deleteRows(Instant.now().minus(1, ChronoUnit.DAYS))).isEqualTo(1);
+    }
+
+    private static JobExecution execution(String jobName, Instant firedAt, long durationMs, boolean success) {
+        JobExecution execution = new JobExecution();
+        execution.setJobName(jobName);
+        execution.setJobGroup("DEFAULT");
+        execution.setFiredAt(firedAt);
+        execution.setDurationMs(durationMs);
+        execution.setSuccess(success);
+        execution.setErrorType(success ? null : IllegalStateException.class.getName());
+        return execution;
+    }
+
+}
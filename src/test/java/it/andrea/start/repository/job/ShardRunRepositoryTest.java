@@ -0,0 +1,88 @@
+package it.andrea.start.repository.job;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import it.andrea.start.constants.ShardRunStatus;
+import it.andrea.start.models.job.ShardRun;
+
+@DataJpaTest
+class ShardRunRepositoryTest {
+
+    private static final String RUN_ID = "run-1";
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Autowired
+    private ShardRunRepository shardRunRepository;
+
+    @BeforeEach
+    void setUp() {
+        ShardRun shardRun = new ShardRun();
+        shardRun.setId(RUN_ID);
+        shardRun.setJobName("PurgeJob");
+        shardRun.setJobGroup("MAINTENANCE");
+        shardRun.setShardCount(3);
+        shardRun.setStatus(ShardRunStatus.RUNNING);
+        shardRun.setStartedAt(Instant.now());
+        testEntityManager.persistAndFlush(shardRun);
+    }
+
+    @Test
+    void runFinishesOnlyWhenEveryShardReported() {
+        shardRunRepository.incrementShards(RUN_ID, 1, 0);
+        shardRunRepository.incrementShards(RUN_ID, 1, 0);
+        assertThat(finish()).isZero();
+
+        shardRunRepository.incrementShards(RUN_ID, 1, 0);
+        assertThat(finish()).isOne();
+        assertThat(finish()).isZero();
+
+        ShardRun shardRun = shardRunRepository.findById(RUN_ID).orElseThrow();
+        assertThat(shardRun.getStatus()).isEqualTo(ShardRunStatus.COMPLETED);
+        assertThat(shardRun.getCompleted()).isEqualTo(3);
+        assertThat(shardRun.getFinishedAt()).isNotNull();
+    }
+
+    @Test
+    void anyFailedShardFailsTheRun() {
+        shardRunRepository.incrementShards(RUN_ID, 2, 0);
+        shardRunRepository.incrementShards(RUN_ID, 0, 1);
+        finish();
+
+        assertThat(shardRunRepository.findById(RUN_ID).orElseThrow().getStatus()).isEqualTo(ShardRunStatus.FAILED);
+    }
+
+    @Test
+    void staleRunsAreFailedByTheTimeoutSweep() {
+        assertThat(shardRunRepository.failStale(Instant.now().minusSeconds(60), Instant.now(), ShardRunStatus.RUNNING, ShardRunStatus.FAILED)).isZero();
+        assertThat(shardRunRepository.failStale(Instant.now().plusSeconds(60), Instant.now(), ShardRunStatus.RUNNING, ShardRunStatus.FAILED)).isOne();
+
+        ShardRun shardRun = shardRunRepository.findById(RUN_ID).orElseThrow();
+        assertThat(shardRun.getStatus()).isEqualTo(ShardRunStatus.FAILED);
+        assertThat(shardRun.getFinishedAt()).isNotNull();
+    }
+
+    @Test
+    void openRunsOfTheJobAreFailedWhenWorkersAreRemoved() {
+        assertThat(shardRunRepository.failRunning("MAINTENANCE", "OtherJob", Instant.now(), ShardRunStatus.RUNNING, ShardRunStatus.FAILED)).isZero();
+        assertThat(shardRunRepository.failRunning("MAINTENANCE", "PurgeJob", Instant.now(), ShardRunStatus.RUNNING, ShardRunStatus.FAILED)).isOne();
+
+        shardRunRepository.incrementShards(RUN_ID, 3, 0);
+        assertThat(finish()).isZero();
+        assertThat(shardRunRepository.findById(RUN_ID).orElseThrow().getStatus()).isEqualTo(ShardRunStatus.FAILED);
+    }
+
+    private int finish() {
+        return shardRunRepository.finishIfComplete(RUN_ID, Instant.now(), ShardRunStatus.RUNNING, ShardRunStatus.COMPLETED, ShardRunStatus.FAILED);
+    }
+
+}
@@ -0,0 +1,39 @@
+package it.andrea.start.repository.user;
+
+import java.time.Instant;
+import java.util.Set;
+
+import it.andrea.start.constants.Language;
+import it.andrea.start.constants.UserStatus;
+import it.andrea.start.models.user.User;
+import it.andrea.start.models.user.UserRole;
+
+final class UserFixtures {
+
+    private UserFixtures() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    static User user(String username, UserRole... roles) {
+        return user(username, username.toLowerCase() + "@example.com", roles);
+    }
+
+    static User user(String username, String email, UserRole... roles) {
+        Instant now = Instant.now();
+
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("password");
+        user.setName("User " + username);
+        user.setEmail(email);
+        user.setUserStatus(UserStatus.ACTIVE);
+        user.setLanguageDefault(Language.getDefault());
+        user.setCreatedBy("test");
+        user.setUpdatedBy("test");
+        user.setCreatedAt(now);
+        user.setUpdatedAt(now);
+        user.setRoles(Set.of(roles));
+        return user;
+    }
+
+}
@@ -0,0 +1,82 @@
+package it.andrea.start.repository.user;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.jpa.domain.Specification;
+
+import it.andrea.start.constants.RoleType;
+import it.andrea.start.constants.UserStatus;
+import it.andrea.start.models.user.User;
+import it.andrea.start.models.user.UserRole;
+
+@DataJpaTest
+class UserRepositoryBulkTest {
+
+    private static final Set<RoleType> PROTECTED_ROLES = EnumSet.of(RoleType.ROLE_ADMIN, RoleType.ROLE_MANAGER);
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final Map<RoleType, UserRole> roles = new EnumMap<>(RoleType.class);
+
+    @BeforeEach
+    void setUp() {
+        for (RoleType roleType : RoleType.values()) {
+            roles.put(roleType, testEntityManager.persist(new UserRole(roleType)));
+        }
+
+        persistUser("ADMIN", RoleType.ROLE_ADMIN);
+        persistUser("MANAGER", RoleType.ROLE_MANAGER);
+        persistUser("ALICE", RoleType.ROLE_USER);
+        persistUser("BOB", RoleType.ROLE_USER);
+        testEntityManager.flush();
+        testEntityManager.clear();
+    }
+
+    @Test
+    void statusUpdateSkipsProtectedUsers() {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        Specification<User> everyone = (root, query, cb) -> cb.conjunction();
+
+        int affected = userRepository.bulkUpdateStatus(everyone, UserStatus.DEACTIVATE, PROTECTED_ROLES, now, "test");
+
+        assertThat(affected).isEqualTo(2);
+        assertThat(userRepository.findUsernamesRevokedAt(now)).containsExactlyInAnyOrder("ALICE", "BOB");
+        assertThat(userRepository.findByUsername("ADMIN").orElseThrow().getUserStatus()).isEqualTo(UserStatus.ACTIVE);
+        assertThat(userRepository.bulkUpdateStatus(everyone, UserStatus.DEACTIVATE, PROTECTED_ROLES, now, "test")).isZero();
+    }
+
+    @Test
+    void roleReplacementTouchesOnlyEligibleUsers() {
+        Map<Long, String> targets = userRepository.findBulkTargets((root, query, cb) -> cb.conjunction(), PROTECTED_ROLES);
+        assertThat(targets.values()).containsExactlyInAnyOrder("ALICE", "BOB");
+
+        int affected = userRepository.bulkReplaceRoles(targets.keySet(), List.of(RoleType.ROLE_GUEST), Instant.now(), "test");
+        testEntityManager.clear();
+
+        assertThat(affected).isEqualTo(2);
+        assertThat(userRepository.findByUsername("ALICE").orElseThrow().getRoles()).extracting(UserRole::getRole).containsExactly(RoleType.ROLE_GUEST);
+        assertThat(userRepository.findByUsername("MANAGER").orElseThrow().getRoles()).extracting(UserRole::getRole).containsExactly(RoleType.ROLE_MANAGER);
+    }
+
+    private void persistUser(String username, RoleType roleType) {
+        testEntityManager.persist(UserFixtures.user(username, roles.get(roleType)));
+    }
+
+}
@@ -0,0 +1,71 @@
+package it.andrea.start.repository.user;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import it.andrea.start.configuration.HibernateCacheConfig;
+import it.andrea.start.constants.RoleType;
+import it.andrea.start.models.user.User;
+import it.andrea.start.models.user.UserRole;
+import jakarta.persistence.EntityManagerFactory;
+
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@Import(HibernateCacheConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserRepositoryCacheTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserRoleRepository userRoleRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void naturalIdLookupIsServedFromCache() {
+        createUser("CACHED");
+        userRepository.findByUsername("CACHED").orElseThrow();
+
+        statistics.clear();
+        User user = userRepository.findByUsername("CACHED").orElseThrow();
+
+        assertThat(user.getRoles()).extracting(UserRole::getRole).containsExactly(RoleType.ROLE_USER);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getNaturalIdCacheHitCount()).isPositive();
+    }
+
+    @Test
+    void bulkUpdateEvictsCachedUser() {
+        createUser("UPDATED");
+        userRepository.findByUsername("UPDATED").orElseThrow();
+
+        userRepository.updatePasswordHash("UPDATED", "rehashed");
+
+        assertThat(userRepository.findByUsername("UPDATED").orElseThrow().getPassword()).isEqualTo("rehashed");
+    }
+
+    private void createUser(String username) {
+        UserRole role = userRoleRepository.findByRole(RoleType.ROLE_USER).orElseGet(() -> userRoleRepository.save(new UserRole(RoleType.ROLE_USER)));
+
+        userRepository.save(UserFixtures.user(username, role));
+    }
+
+}
@@ -0,0 +1,97 @@
+package it.andrea.start.repository.user;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import it.andrea.start.models.user.User;
+
+@DataJpaTest
+@Import(UserUniqueConstraints.class)
+class UserRepositoryConflictTest {
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserUniqueConstraints userUniqueConstraints;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void noMatchingRowsMeansNoConflict() {
+        UserConflict conflict = userRepository.findConflicts("NOBODY", "nobody@example.com", null);
+
+        assertThat(conflict.getUsernameCount()).isNull();
+        assertThat(conflict.isUsernameTaken()).isFalse();
+        assertThat(conflict.isEmailTaken()).isFalse();
+    }
+
+    @Test
+    void reportsEachKeySeparately() {
+        persist("MARIO", "mario@example.com");
+        persist("LUIGI", "luigi@example.com");
+
+        UserConflict conflict = userRepository.findConflicts("MARIO", "luigi@example.com", null);
+
+        assertThat(conflict.getUsernameCount()).isEqualTo(1);
+        assertThat(conflict.getEmailCount()).isEqualTo(1);
+    }
+
+    @Test
+    void excludeIdIgnoresTheUserBeingUpdated() {
+        User mario = persist("MARIO", "mario@example.com");
+
+        UserConflict conflict = userRepository.findConflicts("MARIO", "mario@example.com", mario.getId());
+
+        assertThat(conflict.isUsernameTaken()).isFalse();
+        assertThat(conflict.isEmailTaken()).isFalse();
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void missingConstraintIsRecreatedAtStartup() {
+        jdbcTemplate.execute("ALTER TABLE users DROP CONSTRAINT " + User.UK_EMAIL);
+
+        userUniqueConstraints.verify();
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM information_schema.table_constraints WHERE constraint_name = ?", Integer.class, User.UK_EMAIL)).isEqualTo(1);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void duplicatesPreventingTheConstraintFailStartup() {
+        jdbcTemplate.execute("ALTER TABLE users DROP CONSTRAINT " + User.UK_USERNAME);
+        try {
+            insert(1, "TWIN", "twin1@example.com");
+            insert(2, "TWIN", "twin2@example.com");
+
+            assertThatThrownBy(userUniqueConstraints::verify).isInstanceOf(IllegalStateException.class).hasMessageContaining(User.UK_USERNAME);
+        } finally {
+            jdbcTemplate.update("DELETE FROM users");
+            userUniqueConstraints.verify();
+        }
+    }
+
+    private User persist(String username, String email) {
+        return testEntityManager.persistFlushFind(UserFixtures.user(username, email));
+    }
+
+    private void insert(long id, String username, String email) {
+        jdbcTemplate.update("INSERT INTO users (id, username, password, name, email, user_status, language_default, created_by, updated_by, created_at, updated_at, version) "
+                + "VALUES (?, ?, 'password', 'Twin user', ?, 'ACTIVE', 0, 'test', 'test', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0)", id, username, email);
+    }
+
+}
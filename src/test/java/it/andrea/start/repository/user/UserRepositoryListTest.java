@@ -0,0 +1,99 @@
+package it.andrea.start.repository.user;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import it.andrea.start.constants.RoleType;
+import it.andrea.start.models.user.User;
+import it.andrea.start.models.user.UserRole;
+import it.andrea.start.searchcriteria.user.UserSearchCriteria;
+import it.andrea.start.searchcriteria.user.UserSearchSpecification;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class UserRepositoryListTest {
+
+    private static final int USERS = 40;
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        Map<RoleType, UserRole> roles = new EnumMap<>(RoleType.class);
+        for (RoleType roleType : RoleType.values()) {
+            roles.put(roleType, testEntityManager.persist(new UserRole(roleType)));
+        }
+
+        for (int i = 0; i < USERS; i++) {
+            UserRole[] userRoles = i % 2 == 0 ? new UserRole[] { roles.get(RoleType.ROLE_USER) } : new UserRole[] { roles.get(RoleType.ROLE_USER), roles.get(RoleType.ROLE_GUEST) };
+            testEntityManager.persist(UserFixtures.user(String.format("USER%03d", i), userRoles));
+        }
+        testEntityManager.flush();
+        testEntityManager.clear();
+
+        statistics = testEntityManager.getEntityManager().getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void statementCountDoesNotDependOnPageSize() {
+        long small = statementsFor(5);
+        long large = statementsFor(30);
+
+        assertThat(small).isEqualTo(3);
+        assertThat(large).isEqualTo(small);
+    }
+
+    @Test
+    void pageKeepsRequestedOrderAndLoadsRoles() {
+        Page<User> page = userRepository.findAllWithRoles(new UserSearchSpecification(new UserSearchCriteria()), PageRequest.of(1, 10, Sort.by(Sort.Direction.DESC, "username")));
+
+        assertThat(page.getTotalElements()).isEqualTo(USERS);
+        assertThat(page.getContent()).extracting(User::getUsername).startsWith("USER029", "USER028");
+        assertThat(page.getContent()).allSatisfy(user -> assertThat(user.getRoles()).isNotEmpty());
+    }
+
+    @Test
+    void sliceSeeksPastCursorWithoutCounting() {
+        UserSearchSpecification specification = new UserSearchSpecification(new UserSearchCriteria());
+        List<User> first = userRepository.findSliceWithRoles(specification, null, null, 10);
+        User last = first.get(first.size() - 1);
+
+        testEntityManager.clear();
+        statistics.clear();
+        List<User> next = userRepository.findSliceWithRoles(specification, last.getUsername(), last.getId(), 10);
+
+        assertThat(first).extracting(User::getUsername).startsWith("USER000").endsWith("USER009");
+        assertThat(next).extracting(User::getUsername).startsWith("USER010").endsWith("USER019");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    private long statementsFor(int pageSize) {
+        testEntityManager.clear();
+        statistics.clear();
+
+        Page<User> page = userRepository.findAllWithRoles(new UserSearchSpecification(new UserSearchCriteria()), PageRequest.of(0, pageSize));
+        page.getContent().forEach(user -> user.getRoles().size());
+
+        return statistics.getPrepareStatementCount();
+    }
+
+}
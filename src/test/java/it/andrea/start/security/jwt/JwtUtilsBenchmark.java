@@ -0,0 +1,88 @@
+package it.andrea.start.security.jwt;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.SecretKey;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import it.andrea.start.security.service.JWTokenUserDetails;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+public class JwtUtilsBenchmark {
+
+    private static final String SECRET = "benchmark-jwt-secret-abcdefghijklmnopqrstuvwxyz1234567890-abcdefghijklmnop";
+
+    private JwtUtils jwtUtils;
+    private SecretKey secretKey;
+    private JwtParser jwtParser;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtUtils = new JwtUtils(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationDays", 1);
+        ReflectionTestUtils.setField(jwtUtils, "tokenCacheMaxSize", 10_000L);
+        jwtUtils.init();
+
+        secretKey = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        jwtParser = Jwts.parser().verifyWith(secretKey).build();
+
+        // @formatter:off
+        JWTokenUserDetails principal = new JWTokenUserDetails.Builder()
+                .username("BENCHMARK")
+                .password("")
+                .authorities(List.of(new SimpleGrantedAuthority("ROLE_USER")))
+                .build();
+        // @formatter:on
+        token = jwtUtils.generateToken(new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @Benchmark
+    public Claims parserPerRequest() {
+        return Jwts.parser().verifyWith(secretKey).build().parseSignedClaims(token).getPayload();
+    }
+
+    @Benchmark
+    public Claims sharedParser() {
+        return jwtParser.parseSignedClaims(token).getPayload();
+    }
+
+    @Benchmark
+    public Object validateAndParseToken() {
+        return jwtUtils.validateAndParseToken(token);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtUtilsBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
@@ -0,0 +1,41 @@
+package it.andrea.start.security.login;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import it.andrea.start.error.exception.BusinessException;
+import it.andrea.start.error.exception.ErrorCode;
+
+class LoginThrottleTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // Two attempts per username, three per address, refill slow enough not to matter during the test
+    private final LoginThrottle loginThrottle = new LoginThrottle(meterRegistry, 1000, 2, 0.001, 3, 0.001);
+
+    @Test
+    void usernameBucketIsSharedAcrossAddressesAndCase() {
+        loginThrottle.acquire("mario", "10.0.0.1");
+        loginThrottle.acquire("MARIO", "10.0.0.2");
+
+        assertThatThrownBy(() -> loginThrottle.acquire("Mario", "10.0.0.3")).isInstanceOfSatisfying(BusinessException.class,
+                e -> assertThat(e.getErrorCode()).isEqualTo(ErrorCode.AUTHORIZE_TOO_MANY_ATTEMPTS));
+        assertThat(meterRegistry.get("security.login.throttled").tag("key", "username").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void addressBucketIsSharedAcrossUsernames() {
+        loginThrottle.acquire("user1", "10.0.0.1");
+        loginThrottle.acquire("user2", "10.0.0.1");
+        loginThrottle.acquire("user3", "10.0.0.1");
+
+        assertThatThrownBy(() -> loginThrottle.acquire("user4", "10.0.0.1")).isInstanceOf(BusinessException.class);
+        assertThat(meterRegistry.get("security.login.throttled").tag("key", "ip").counter().count()).isEqualTo(1);
+        assertThatCode(() -> loginThrottle.acquire("user4", "10.0.0.2")).doesNotThrowAnyException();
+    }
+
+}
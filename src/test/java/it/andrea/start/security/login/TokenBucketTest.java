@@ -0,0 +1,57 @@
+package it.andrea.start.security.login;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+class TokenBucketTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    @Test
+    void allowsBurstUpToCapacity() {
+        TokenBucket bucket = new TokenBucket(5, 1, nanos::get);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(bucket.tryConsume()).isTrue();
+        }
+        assertThat(bucket.tryConsume()).isFalse();
+    }
+
+    @Test
+    void refillsAtConfiguredRate() {
+        TokenBucket bucket = new TokenBucket(2, 0.5, nanos::get);
+        bucket.tryConsume();
+        bucket.tryConsume();
+
+        advanceSeconds(1);
+        assertThat(bucket.tryConsume()).isFalse();
+
+        advanceSeconds(1);
+        assertThat(bucket.tryConsume()).isTrue();
+        assertThat(bucket.tryConsume()).isFalse();
+    }
+
+    @Test
+    void longIdleDoesNotExceedCapacity() {
+        TokenBucket bucket = new TokenBucket(3, 1, nanos::get);
+        for (int i = 0; i < 3; i++) {
+            bucket.tryConsume();
+        }
+
+        advanceSeconds(3600);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(bucket.tryConsume()).isTrue();
+        }
+        assertThat(bucket.tryConsume()).isFalse();
+    }
+
+    private void advanceSeconds(long seconds) {
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(seconds));
+    }
+
+}
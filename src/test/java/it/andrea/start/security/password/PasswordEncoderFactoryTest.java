@@ -0,0 +1,56 @@
+package it.andrea.start.security.password;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+class PasswordEncoderFactoryTest {
+
+    @Test
+    void calibrationNeverGoesBelowTheAlgorithmMinimum() {
+        PasswordEncoderFactory factory = factory(PasswordHashAlgorithm.BCRYPT, 10, 0, 310_000);
+
+        assertThat(factory.calibrate(PasswordHashAlgorithm.BCRYPT, 1)).isEqualTo(PasswordHashAlgorithm.BCRYPT.getMinimumCost());
+        assertThat(factory.calibrate(PasswordHashAlgorithm.ARGON2, 1)).isEqualTo(PasswordHashAlgorithm.ARGON2.getMinimumCost());
+    }
+
+    @Test
+    void costBelowTheMinimumIsRejected() {
+        assertThatThrownBy(() -> factory(PasswordHashAlgorithm.PBKDF2, 10, 0, 10)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> factory(PasswordHashAlgorithm.ARGON2, 10, 1, 310_000)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> factory(PasswordHashAlgorithm.BCRYPT, 4, 0, 310_000)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void pbkdf2CannotBeCalibrated() {
+        assertThatThrownBy(() -> factory(PasswordHashAlgorithm.BCRYPT, 10, 0, 0)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void encodesWithTheSelectedAlgorithmAndStillMatchesLegacyBcrypt() {
+        PasswordEncoder encoder = factory(PasswordHashAlgorithm.ARGON2, 10, 2, 310_000).create();
+
+        assertThat(encoder.encode("secret")).startsWith("{argon2}");
+        assertThat(encoder.matches("secret", new BCryptPasswordEncoder(4).encode("secret"))).isTrue();
+    }
+
+    @Test
+    void pbkdf2CostChangeStillMatchesAndRehashes() {
+        String previous = factory(PasswordHashAlgorithm.PBKDF2, 10, 2, 310_000).create().encode("secret");
+        PasswordEncoder encoder = factory(PasswordHashAlgorithm.PBKDF2, 10, 2, 320_000).create();
+
+        assertThat(previous).startsWith("{pbkdf2@310000}");
+        assertThat(encoder.matches("secret", previous)).isTrue();
+        assertThat(encoder.matches("wrong", previous)).isFalse();
+        assertThat(encoder.upgradeEncoding(previous)).isTrue();
+        assertThat(encoder.upgradeEncoding(encoder.encode("secret"))).isFalse();
+    }
+
+    private static PasswordEncoderFactory factory(PasswordHashAlgorithm algorithm, int bcryptCost, int argon2Cost, int pbkdf2Cost) {
+        return new PasswordEncoderFactory(algorithm, bcryptCost, argon2Cost, pbkdf2Cost, 1024, 1, 250);
+    }
+
+}
@@ -0,0 +1,41 @@
+package it.andrea.start.security.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class BloomFilterTest {
+
+    private static final int INSERTED = 100_000;
+    private static final int PROBES = 1_000_000;
+
+    @Test
+    void everyInsertedValueIsReported() {
+        BloomFilter bloomFilter = new BloomFilter(INSERTED, 0.01);
+        for (int i = 0; i < INSERTED; i++) {
+            bloomFilter.put("revoked-" + i);
+        }
+
+        for (int i = 0; i < INSERTED; i++) {
+            assertThat(bloomFilter.mightContain("revoked-" + i)).as("revoked-%d", i).isTrue();
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTarget() {
+        BloomFilter bloomFilter = new BloomFilter(INSERTED, 0.01);
+        for (int i = 0; i < INSERTED; i++) {
+            bloomFilter.put("revoked-" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < PROBES; i++) {
+            if (bloomFilter.mightContain("valid-" + i)) {
+                falsePositives++;
+            }
+        }
+
+        assertThat((double) falsePositives / PROBES).isLessThan(0.015);
+    }
+
+}
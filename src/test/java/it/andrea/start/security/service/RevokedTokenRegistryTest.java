@@ -0,0 +1,82 @@
+package it.andrea.start.security.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import it.andrea.start.models.user.RevokedToken;
+import it.andrea.start.repository.user.RevokedTokenRepository;
+
+class RevokedTokenRegistryTest {
+
+    private RevokedTokenRepository revokedTokenRepository;
+    private RevokedTokenRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        revokedTokenRepository = mock(RevokedTokenRepository.class);
+        registry = new RevokedTokenRegistry(revokedTokenRepository, new SimpleMeterRegistry(), 100, 0.01);
+    }
+
+    @Test
+    void refreshAppliesRowsRevokedOnOtherNodes() {
+        Instant revokedAt = Instant.now().minus(5, ChronoUnit.MINUTES);
+        when(revokedTokenRepository.findActive(any())).thenReturn(List.of(revokedToken("jti-1", revokedAt, Instant.now().plus(1, ChronoUnit.HOURS))));
+        registry.init();
+        when(revokedTokenRepository.findRevokedSince(any(), any())).thenReturn(List.of(revokedToken("jti-2", Instant.now(), Instant.now().plus(1, ChronoUnit.HOURS))));
+
+        registry.refresh();
+
+        // The query window overlaps the newest known revocation to catch rows committed out of order
+        verify(revokedTokenRepository).findRevokedSince(eq(revokedAt.minusSeconds(60)), any());
+        assertThat(registry.isRevoked("jti-1")).isTrue();
+        assertThat(registry.isRevoked("jti-2")).isTrue();
+        assertThat(registry.isRevoked("jti-3")).isFalse();
+    }
+
+    @Test
+    void purgeDropsExpiredTokensAndKeepsActiveOnes() {
+        Instant now = Instant.now();
+        registry.revoke(revokedToken("expired", now.minus(2, ChronoUnit.HOURS), now.minus(1, ChronoUnit.HOURS)));
+        registry.revoke(revokedToken("active", now, now.plus(1, ChronoUnit.HOURS)));
+
+        registry.purge();
+
+        verify(revokedTokenRepository).deleteExpired(any());
+        assertThat(registry.isRevoked("expired")).isFalse();
+        assertThat(registry.isRevoked("active")).isTrue();
+    }
+
+    @Test
+    void growingPastCapacityRebuildsWithoutLosingTokens() {
+        Instant expiresAt = Instant.now().plus(1, ChronoUnit.HOURS);
+        for (int i = 0; i < 500; i++) {
+            registry.revoke(revokedToken("jti-" + i, Instant.now(), expiresAt));
+        }
+
+        for (int i = 0; i < 500; i++) {
+            assertThat(registry.isRevoked("jti-" + i)).isTrue();
+        }
+    }
+
+    private static RevokedToken revokedToken(String tokenId, Instant revokedAt, Instant expiresAt) {
+        RevokedToken revokedToken = new RevokedToken();
+        revokedToken.setTokenId(tokenId);
+        revokedToken.setUsername("USER");
+        revokedToken.setRevokedAt(revokedAt);
+        revokedToken.setExpiresAt(expiresAt);
+        return revokedToken;
+    }
+
+}
@@ -0,0 +1,46 @@
+package it.andrea.start.service.job;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import it.andrea.start.models.job.JobInfo;
+
+class JobFingerprintTest {
+
+    @Test
+    void sameDefinitionGivesSameFingerprint() {
+        Map<String, Object> first = new LinkedHashMap<>();
+        first.put("days", 10);
+        first.put("level", "ALL");
+        Map<String, Object> second = new LinkedHashMap<>();
+        second.put("level", "ALL");
+        second.put("days", 10);
+
+        assertThat(JobFingerprint.of(cronJob("0 0 1 * * ?"), first)).isEqualTo(JobFingerprint.of(cronJob("0 0 1 * * ?"), second));
+    }
+
+    @Test
+    void scheduleOrDataChangesFingerprint() {
+        Map<String, Object> data = Map.of("days", 10);
+        String fingerprint = JobFingerprint.of(cronJob("0 0 1 * * ?"), data);
+
+        assertThat(JobFingerprint.of(cronJob("0 0 2 * * ?"), data)).isNotEqualTo(fingerprint);
+        assertThat(JobFingerprint.of(cronJob("0 0 1 * * ?"), Map.of("days", 11))).isNotEqualTo(fingerprint);
+    }
+
+    private static JobInfo cronJob(String cronExpression) {
+        JobInfo jobInfo = new JobInfo();
+        jobInfo.setJobName("AuditDeleteJob");
+        jobInfo.setJobGroup("DEFAULT");
+        jobInfo.setDescription("Audit cleanup");
+        jobInfo.setJobClass("it.andrea.start.job.AuditDeleteJob");
+        jobInfo.setCronJob(true);
+        jobInfo.setCronExpression(cronExpression);
+        return jobInfo;
+    }
+
+}
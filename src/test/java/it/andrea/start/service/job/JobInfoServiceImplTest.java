@@ -0,0 +1,134 @@
+package it.andrea.start.service.job;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.quartz.JobDetail;
+import org.quartz.JobKey;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.Trigger;
+import org.quartz.Trigger.TriggerState;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import it.andrea.start.job.AuditDeleteJob;
+import it.andrea.start.job.scheduler.JobGroupConcurrencyListener;
+import it.andrea.start.job.shard.ShardFanOutJob;
+import it.andrea.start.mappers.job.JobInfoMapper;
+import it.andrea.start.models.job.JobInfo;
+import it.andrea.start.repository.JobInfoRepository;
+import it.andrea.start.repository.job.JobGroupLimitRepository;
+
+class JobInfoServiceImplTest {
+
+    private static final JobKey JOB_KEY = JobKey.jobKey("audit", "maintenance");
+
+    private final Scheduler scheduler = mock(Scheduler.class);
+    private final JobInfoRepository jobInfoRepository = mock(JobInfoRepository.class);
+    private final JobExecutionService jobExecutionService = mock(JobExecutionService.class);
+
+    // @formatter:off
+    private final JobInfoServiceImpl jobInfoService = new JobInfoServiceImpl(
+            scheduler,
+            jobInfoRepository,
+            mock(JobInfoMapper.class),
+            new ObjectMapper(),
+            mock(PlatformTransactionManager.class),
+            mock(JobGroupLimitRepository.class),
+            mock(JobGroupConcurrencyListener.class),
+            jobExecutionService,
+            true,
+            30000);
+    // @formatter:on
+
+    private JobDetail stored;
+    private Trigger storedTrigger;
+
+    @BeforeEach
+    void setUp() throws SchedulerException {
+        JobInfo jobInfo = new JobInfo();
+        jobInfo.setJobName(JOB_KEY.getName());
+        jobInfo.setJobGroup(JOB_KEY.getGroup());
+        jobInfo.setJobClass(AuditDeleteJob.class.getName());
+        jobInfo.setCronJob(true);
+        jobInfo.setCronExpression("0 0 3 * * ?");
+        jobInfo.setActive(true);
+        when(jobInfoRepository.findAll()).thenReturn(List.of(jobInfo));
+
+        // First boot: nothing stored yet, the job and its trigger are scheduled
+        jobInfoService.initializeScheduledJobs();
+        Map<JobDetail, Set<? extends Trigger>> scheduled = captureScheduled(1);
+        stored = scheduled.keySet().iterator().next();
+        storedTrigger = scheduled.get(stored).iterator().next();
+        when(scheduler.getJobDetail(JOB_KEY)).thenReturn(stored);
+    }
+
+    @Test
+    void unchangedJobWithLiveTriggerIsKept() throws SchedulerException {
+        triggersOfJob(List.of(storedTrigger), TriggerState.NORMAL);
+
+        jobInfoService.initializeScheduledJobs();
+
+        verify(scheduler, times(1)).scheduleJobs(anyMap(), anyBoolean());
+    }
+
+    @Test
+    void unchangedJobWithoutTriggerIsRescheduled() throws SchedulerException {
+        triggersOfJob(List.of(), TriggerState.NONE);
+
+        jobInfoService.initializeScheduledJobs();
+
+        assertThat(captureScheduled(2).get(stored)).extracting(Trigger::getKey).containsExactly(storedTrigger.getKey());
+    }
+
+    @Test
+    void unchangedJobWithErroredTriggerIsRescheduled() throws SchedulerException {
+        triggersOfJob(List.of(storedTrigger), TriggerState.ERROR);
+
+        jobInfoService.initializeScheduledJobs();
+
+        captureScheduled(2);
+        verify(scheduler, never()).deleteJob(any());
+    }
+
+    @Test
+    void removingShardWorkersFailsOpenShardRuns() throws SchedulerException {
+        JobKey worker = ShardFanOutJob.workerKey(JOB_KEY, 0);
+        when(scheduler.getJobKeys(any())).thenReturn(Set.of(worker));
+        when(scheduler.deleteJob(worker)).thenReturn(true);
+        triggersOfJob(List.of(), TriggerState.NONE);
+
+        jobInfoService.initializeScheduledJobs();
+
+        verify(jobExecutionService).failOpenShardRuns(JOB_KEY.getName(), JOB_KEY.getGroup());
+    }
+
+    private void triggersOfJob(List<Trigger> triggers, TriggerState state) throws SchedulerException {
+        when(scheduler.getTriggersOfJob(JOB_KEY)).thenAnswer(invocation -> triggers);
+        when(scheduler.getTriggerState(storedTrigger.getKey())).thenReturn(state);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<JobDetail, Set<? extends Trigger>> captureScheduled(int calls) throws SchedulerException {
+        ArgumentCaptor<Map<JobDetail, Set<? extends Trigger>>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(scheduler, times(calls)).scheduleJobs(captor.capture(), anyBoolean());
+        return captor.getValue();
+    }
+
+}
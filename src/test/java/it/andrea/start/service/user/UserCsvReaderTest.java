@@ -0,0 +1,37 @@
+package it.andrea.start.service.user;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.StringReader;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import it.andrea.start.constants.RoleType;
+import it.andrea.start.constants.UserStatus;
+import it.andrea.start.dto.user.UserDTO;
+import it.andrea.start.error.exception.BusinessException;
+
+class UserCsvReaderTest {
+
+    private static final String HEADER = "username,name,email,password,userStatus,roles,language\n";
+
+    @Test
+    void readsQuotedValuesAndRoleLists() {
+        List<UserDTO> users = UserCsvReader.read(new StringReader(HEADER + "mrossi,\"Rossi, Mario\",m.rossi@example.com,Password1,active,ROLE_USER|ROLE_GUEST,it-IT\n\n"), 10);
+
+        assertThat(users).hasSize(1);
+        UserDTO user = users.get(0);
+        assertThat(user.getName()).isEqualTo("Rossi, Mario");
+        assertThat(user.getUserStatus()).isEqualTo(UserStatus.ACTIVE);
+        assertThat(user.getRoles()).containsExactlyInAnyOrder(RoleType.ROLE_USER, RoleType.ROLE_GUEST);
+    }
+
+    @Test
+    void rejectsUnknownRoleAndTooManyRows() {
+        assertThatThrownBy(() -> UserCsvReader.read(new StringReader(HEADER + "mrossi,Mario,m@example.com,Password1,ACTIVE,ROLE_NOPE,\n"), 10)).isInstanceOf(BusinessException.class);
+        assertThatThrownBy(() -> UserCsvReader.read(new StringReader(HEADER + "a,A,a@x.it,p,ACTIVE,ROLE_USER,\nb,B,b@x.it,p,ACTIVE,ROLE_USER,\n"), 1)).isInstanceOf(BusinessException.class);
+    }
+
+}
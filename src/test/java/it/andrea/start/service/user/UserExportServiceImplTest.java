@@ -0,0 +1,70 @@
+package it.andrea.start.service.user;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import it.andrea.start.constants.ExportFormat;
+import it.andrea.start.repository.user.UserExportRow;
+import it.andrea.start.repository.user.UserRepository;
+
+class UserExportServiceImplTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final UserExportServiceImpl userExportService = new UserExportServiceImpl(userRepository, new ObjectMapper());
+
+    @Test
+    void csvQuotesSeparatorsAndNeutralizesFormulas() throws IOException {
+        // @formatter:off
+        when(userRepository.streamExportRows()).thenReturn(Stream.of(
+                new Row(1L, "mario", "Rossi, Mario", "mario@test.it", "ACTIVE", "ROLE_USER|ROLE_GUEST", 0),
+                new Row(2L, "=HYPERLINK(\"x\")", "+39 123", "@evil", "ACTIVE", "ROLE_USER", null)));
+        // @formatter:on
+
+        String csv = export(ExportFormat.CSV, 2);
+
+        // @formatter:off
+        assertThat(csv.split("\n")).containsExactly(
+                "id,username,name,email,userStatus,roles,language",
+                "1,mario,\"Rossi, Mario\",mario@test.it,ACTIVE,ROLE_USER|ROLE_GUEST,it-IT",
+                "2,\"'=HYPERLINK(\"\"x\"\")\",'+39 123,'@evil,ACTIVE,ROLE_USER,");
+        // @formatter:on
+    }
+
+    @Test
+    void ndjsonWritesOneObjectPerLineWithRolesAsArray() throws IOException {
+        // @formatter:off
+        when(userRepository.streamExportRows()).thenReturn(Stream.of(
+                new Row(1L, "mario", "Mario", "mario@test.it", "ACTIVE", "ROLE_USER|ROLE_GUEST", null),
+                new Row(2L, "luigi", "=1+1", "luigi@test.it", "SUSPENDED", null, null)));
+        // @formatter:on
+
+        String ndjson = export(ExportFormat.NDJSON, 2);
+
+        String[] lines = ndjson.split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).contains("\"username\":\"mario\"", "\"roles\":[\"ROLE_USER\",\"ROLE_GUEST\"]");
+        // JSON values are data, not spreadsheet cells: left untouched
+        assertThat(lines[1]).contains("\"name\":\"=1+1\"", "\"roles\":[]");
+        assertThat(ndjson).endsWith("\n");
+    }
+
+    private String export(ExportFormat format, long expectedRows) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertThat(userExportService.export(format, out)).isEqualTo(expectedRows);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    record Row(Long getId, String getUsername, String getName, String getEmail, String getUserStatus, String getRoles, Integer getLanguageDefault) implements UserExportRow {
+    }
+
+}
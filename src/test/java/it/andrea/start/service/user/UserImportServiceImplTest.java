@@ -0,0 +1,184 @@
+package it.andrea.start.service.user;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import it.andrea.start.constants.RoleType;
+import it.andrea.start.constants.UserImportStatus;
+import it.andrea.start.constants.UserStatus;
+import it.andrea.start.dto.user.UserDTO;
+import it.andrea.start.dto.user.UserImportReportDTO;
+import it.andrea.start.dto.user.UserImportRowDTO;
+import it.andrea.start.error.ErrorResponseCache;
+import it.andrea.start.error.exception.user.UserAlreadyExistsException;
+import it.andrea.start.mappers.user.UserMapper;
+import it.andrea.start.models.user.User;
+import it.andrea.start.repository.user.UserBatchRepository;
+import it.andrea.start.repository.user.UserRepository;
+import it.andrea.start.security.service.JWTokenUserDetails;
+import it.andrea.start.validator.user.UserValidator;
+import jakarta.validation.Validation;
+
+class UserImportServiceImplTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final UserBatchRepository userBatchRepository = mock(UserBatchRepository.class);
+    private final UserMapper userMapper = mock(UserMapper.class);
+    private final PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+    private final ErrorResponseCache errorResponseCache = mock(ErrorResponseCache.class);
+
+    // @formatter:off
+    private final UserImportServiceImpl userImportService = new UserImportServiceImpl(
+            passwordEncoder,
+            userRepository,
+            userBatchRepository,
+            userMapper,
+            new UserValidator(userRepository),
+            Validation.buildDefaultValidatorFactory().getValidator(),
+            errorResponseCache,
+            mock(PlatformTransactionManager.class),
+            new SimpleMeterRegistry(),
+            100,
+            10,
+            2);
+    // @formatter:on
+
+    private final JWTokenUserDetails manager = new JWTokenUserDetails.Builder().username("manager").password("").roleMask(RoleType.ROLE_MANAGER.getBit()).build();
+
+    UserImportServiceImplTest() {
+        when(passwordEncoder.encode(any())).thenAnswer(invocation -> "hash:" + invocation.getArgument(0));
+        when(userBatchRepository.nextIds(anyInt())).thenAnswer(invocation -> LongStream.rangeClosed(1, invocation.<Integer>getArgument(0)).boxed().toList());
+        doAnswer(invocation -> {
+            UserDTO dto = invocation.getArgument(0);
+            User user = invocation.getArgument(1);
+            user.setUsername(dto.getUsername());
+            user.setEmail(dto.getEmail());
+            return null;
+        }).when(userMapper).toEntity(any(), any());
+    }
+
+    @AfterEach
+    void tearDown() {
+        userImportService.shutdown();
+    }
+
+    @Test
+    void rejectsInvalidRowsAndRolesWithoutHashing() {
+        UserImportReportDTO report = userImportService.importUsers(List.of(user("abc", "short@test.it"), admin("admin1", "admin@test.it")), manager);
+
+        assertThat(report.getCreated()).isZero();
+        assertThat(report.getRows()).extracting(UserImportRowDTO::getErrorCode).containsExactly("error.user.username.wrong.length", "error.user.role.admin.not.usable");
+        verify(passwordEncoder, never()).encode(any());
+        verify(userBatchRepository, never()).nextIds(anyInt());
+    }
+
+    @Test
+    void rejectsDuplicatesInsideTheFile() {
+        List<UserDTO> users = List.of(user("mario", "mario@test.it"), user("MARIO", "other@test.it"), user("luigi", "Mario@Test.it"));
+
+        UserImportReportDTO report = userImportService.importUsers(users, manager);
+
+        assertThat(report.getRows()).extracting(UserImportRowDTO::getStatus).containsExactly(UserImportStatus.CREATED, UserImportStatus.REJECTED, UserImportStatus.REJECTED);
+        assertThat(report.getRows()).extracting(UserImportRowDTO::getErrorCode).containsExactly(null, "error.user.username.already.used", "error.user.email.already.used");
+    }
+
+    @Test
+    void rejectsConflictsWithExistingUsersAndInsertsTheRest() {
+        when(userRepository.findExistingUsernames(anyCollection())).thenReturn(List.of("MARIO"));
+        when(userRepository.findExistingEmails(anyCollection())).thenReturn(List.of("taken@test.it"));
+        List<UserDTO> users = List.of(user("mario", "mario@test.it"), user("luigi", "taken@test.it"), user("peach", "peach@test.it"));
+
+        UserImportReportDTO report = userImportService.importUsers(users, manager);
+
+        assertThat(report.getCreated()).isEqualTo(1);
+        assertThat(report.getRejected()).isEqualTo(2);
+        assertThat(report.getRows().get(2).getId()).isEqualTo(1L);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<User>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(userBatchRepository).insertAll(inserted.capture(), anyInt());
+        assertThat(inserted.getValue()).singleElement().satisfies(user -> {
+            assertThat(user.getUsername()).isEqualTo("peach");
+            assertThat(user.getPassword()).isEqualTo("hash:password1");
+        });
+        verify(passwordEncoder, never()).encode("password0");
+    }
+
+    @Test
+    void emailLookupIsCaseInsensitive() {
+        when(userRepository.findExistingEmails(anyCollection())).thenReturn(List.of("taken@test.it"));
+
+        UserImportReportDTO report = userImportService.importUsers(List.of(user("luigi", "Taken@Test.it")), manager);
+
+        assertThat(report.getRows()).extracting(UserImportRowDTO::getErrorCode).containsExactly("error.user.email.already.used");
+        verify(userRepository).findExistingEmails(List.of("taken@test.it"));
+    }
+
+    @Test
+    void concurrentCreationRejectsTheTakenRowsAndRetriesTheRest() {
+        when(userRepository.findExistingUsernames(anyCollection())).thenReturn(List.of(), List.of("mario"));
+        doThrow(new DataIntegrityViolationException("UK_USER_USERNAME")).doNothing().when(userBatchRepository).insertAll(anyList(), anyInt());
+
+        UserImportReportDTO report = userImportService.importUsers(List.of(user("mario", "mario@test.it"), user("peach", "peach@test.it")), manager);
+
+        assertThat(report.getRows()).extracting(UserImportRowDTO::getStatus).containsExactly(UserImportStatus.REJECTED, UserImportStatus.CREATED);
+        assertThat(report.getCreated()).isEqualTo(1);
+    }
+
+    @Test
+    void repeatedConflictIsReportedAsAlreadyExisting() {
+        doThrow(new DataIntegrityViolationException("UK_USER_USERNAME")).when(userBatchRepository).insertAll(anyList(), anyInt());
+
+        assertThatThrownBy(() -> userImportService.importUsers(List.of(user("peach", "peach@test.it")), manager)).isInstanceOf(UserAlreadyExistsException.class);
+    }
+
+    @Test
+    void nothingToInsertSkipsTheBatch() {
+        when(userRepository.findExistingUsernames(anyCollection())).thenReturn(List.of("MARIO"));
+
+        userImportService.importUsers(List.of(user("mario", "mario@test.it")), manager);
+
+        verify(userBatchRepository, never()).insertAll(anyList(), anyInt());
+        verify(passwordEncoder, never()).encode(any());
+    }
+
+    private static UserDTO user(String username, String email) {
+        UserDTO dto = new UserDTO();
+        dto.setUsername(username);
+        dto.setName("User " + username);
+        dto.setEmail(email);
+        dto.setUserStatus(UserStatus.ACTIVE);
+        dto.setRoles(Set.of(RoleType.ROLE_USER));
+        dto.setPassword(username.equals("peach") ? "password1" : "password0");
+        return dto;
+    }
+
+    private static UserDTO admin(String username, String email) {
+        UserDTO dto = user(username, email);
+        dto.setRoles(Set.of(RoleType.ROLE_ADMIN));
+        return dto;
+    }
+
+}
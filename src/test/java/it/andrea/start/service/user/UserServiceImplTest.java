@@ -0,0 +1,88 @@
+package it.andrea.start.service.user;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import it.andrea.start.constants.RoleType;
+import it.andrea.start.constants.UserStatus;
+import it.andrea.start.dto.user.UserBulkResultDTO;
+import it.andrea.start.dto.user.UserDTO;
+import it.andrea.start.error.exception.BusinessException;
+import it.andrea.start.error.exception.ErrorCode;
+import it.andrea.start.mappers.user.UserMapper;
+import it.andrea.start.models.user.User;
+import it.andrea.start.repository.user.UserRepository;
+import it.andrea.start.repository.user.UserSearchIndex;
+import it.andrea.start.searchcriteria.user.UserSearchCriteria;
+import it.andrea.start.security.service.JWTokenUserDetails;
+import it.andrea.start.security.service.RevokedUserRegistry;
+import it.andrea.start.security.service.UserDetailsCache;
+import it.andrea.start.utils.HelperETag;
+import it.andrea.start.validator.user.UserValidator;
+
+class UserServiceImplTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final UserMapper userMapper = mock(UserMapper.class);
+
+    // @formatter:off
+    private final UserServiceImpl userService = new UserServiceImpl(
+            mock(PasswordEncoder.class),
+            userRepository,
+            userMapper,
+            mock(UserValidator.class),
+            mock(UserDetailsCache.class),
+            mock(RevokedUserRegistry.class),
+            mock(UserSearchIndex.class));
+    // @formatter:on
+
+    private final JWTokenUserDetails admin = new JWTokenUserDetails.Builder().username("admin").password("").roleMask(RoleType.ROLE_ADMIN.getBit()).build();
+
+    @Test
+    void staleIfMatchFailsThePreconditionWithoutWriting() {
+        User stored = new User();
+        stored.setUsername("MARIO");
+        stored.setVersion(3);
+        when(userRepository.findByUsername("MARIO")).thenReturn(Optional.of(stored));
+
+        UserDTO dto = new UserDTO();
+        dto.setUsername("MARIO");
+        dto.setVersion(HelperETag.versionFromIfMatch(HelperETag.fromVersion(2)));
+
+        assertThatThrownBy(() -> userService.update(dto, admin)).isInstanceOfSatisfying(BusinessException.class, e -> {
+            assertThat(e.getErrorCode()).isEqualTo(ErrorCode.ERROR_PRECONDITION_FAILED);
+            assertThat(e.getErrorCode().getHttpStatus()).isEqualTo(HttpStatus.PRECONDITION_FAILED);
+        });
+        verify(userMapper, never()).toEntity(any(), any());
+        verify(userRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void bulkStatusChangeByCriteriaReportsTheAffectedUsersForTheAudit() {
+        UserSearchCriteria criteria = new UserSearchCriteria();
+        criteria.setUserStatus(UserStatus.ACTIVE);
+        when(userRepository.bulkUpdateStatus(any(), eq(UserStatus.DEACTIVATE), any(), any(), anyString())).thenReturn(2);
+        when(userRepository.findUsernamesRevokedAt(any())).thenReturn(List.of("MARIO", "LUIGI"));
+
+        UserBulkResultDTO result = userService.bulkUpdateStatus(null, criteria, UserStatus.DEACTIVATE, admin);
+
+        assertThat(result.getAffected()).isEqualTo(2);
+        assertThat(result.getUsernames()).containsExactly("MARIO", "LUIGI");
+        assertThat(result.toAuditSummary()).isEqualTo("requested=null, affected=2, usernames=[MARIO, LUIGI]");
+    }
+
+}
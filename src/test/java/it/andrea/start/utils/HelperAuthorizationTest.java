@@ -0,0 +1,55 @@
+package it.andrea.start.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import it.andrea.start.constants.RoleType;
+
+class HelperAuthorizationTest {
+
+    // These values are carried by tokens already issued: a failure here means existing tokens change meaning
+    @Test
+    void roleBitsAreStable() {
+        assertThat(RoleType.ROLE_ADMIN.getBit()).isEqualTo(1L);
+        assertThat(RoleType.ROLE_MANAGER.getBit()).isEqualTo(2L);
+        assertThat(RoleType.ROLE_USER.getBit()).isEqualTo(4L);
+        assertThat(RoleType.ROLE_GUEST.getBit()).isEqualTo(8L);
+    }
+
+    @Test
+    void maskMapsToAuthorities() {
+        assertThat(names(HelperAuthorization.authorities(1L))).containsExactly("ROLE_ADMIN");
+        assertThat(names(HelperAuthorization.authorities(8L))).containsExactly("ROLE_GUEST");
+        assertThat(names(HelperAuthorization.authorities(6L))).containsExactly("ROLE_MANAGER", "ROLE_USER");
+        assertThat(HelperAuthorization.authorities(0L)).isEmpty();
+    }
+
+    @Test
+    void grantedMaskIncludesLowerRoles() {
+        assertThat(HelperAuthorization.grantedMask(1L)).isEqualTo(15L);
+        assertThat(HelperAuthorization.grantedMask(2L)).isEqualTo(14L);
+        assertThat(HelperAuthorization.grantedMask(4L)).isEqualTo(12L);
+        assertThat(HelperAuthorization.grantedMask(8L)).isEqualTo(8L);
+    }
+
+    @Test
+    void roleMaskRoundTripsAuthorities() {
+        List<GrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_USER"), new SimpleGrantedAuthority("SCOPE_other"));
+
+        long mask = HelperAuthorization.roleMask(authorities);
+
+        assertThat(mask).isEqualTo(4L);
+        assertThat(HelperAuthorization.hasRole(HelperAuthorization.grantedMask(mask), RoleType.ROLE_GUEST)).isTrue();
+        assertThat(HelperAuthorization.hasRole(HelperAuthorization.grantedMask(mask), RoleType.ROLE_MANAGER)).isFalse();
+    }
+
+    private static List<String> names(List<GrantedAuthority> authorities) {
+        return authorities.stream().map(GrantedAuthority::getAuthority).toList();
+    }
+
+}
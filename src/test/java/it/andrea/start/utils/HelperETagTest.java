@@ -0,0 +1,38 @@
+package it.andrea.start.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class HelperETagTest {
+
+    @Test
+    void issuedTagRoundTrips() {
+        assertThat(HelperETag.fromVersion(7)).isEqualTo("\"v7\"");
+        assertThat(HelperETag.versionFromIfMatch(HelperETag.fromVersion(7))).isEqualTo(7L);
+        assertThat(HelperETag.versionFromIfMatch("  \"v0\" ")).isZero();
+    }
+
+    @Test
+    void weakTagNeverMatches() {
+        assertThat(HelperETag.versionFromIfMatch("W/\"v12\"")).isEqualTo(-1L);
+    }
+
+    @Test
+    void absentOrWildcardSkipsTheCheck() {
+        assertThat(HelperETag.versionFromIfMatch(null)).isNull();
+        assertThat(HelperETag.versionFromIfMatch(" ")).isNull();
+        assertThat(HelperETag.versionFromIfMatch("*")).isNull();
+    }
+
+    @Test
+    void foreignOrMalformedTagsNeverMatch() {
+        assertThat(HelperETag.versionFromIfMatch(HelperETag.fromContent("{}"))).isEqualTo(-1L);
+        assertThat(HelperETag.versionFromIfMatch("v7")).isEqualTo(-1L);
+        assertThat(HelperETag.versionFromIfMatch("\"v\"")).isEqualTo(-1L);
+        assertThat(HelperETag.versionFromIfMatch("\"vabc\"")).isEqualTo(-1L);
+        assertThat(HelperETag.versionFromIfMatch("\"v99999999999999999999\"")).isEqualTo(-1L);
+        assertThat(HelperETag.versionFromIfMatch("\"v1\", \"v2\"")).isEqualTo(-1L);
+    }
+
+}